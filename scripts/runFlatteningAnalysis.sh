@@ -0,0 +1,23 @@
+#!/bin/bash
+
+echo "#######################################################"
+echo "#  FULLY_RANDOM, COMPILED with flattening analysis    #"
+echo "#######################################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=FULLY_RANDOM \
+  --file=src/main/resources/examples/fully_random/default_fully_random.yml \
+  --index=COMPILED --flattening --output=/tmp/sapl-benchmark/ --prefix="FLATTENING-FR-$TIMESTAMP" \
+  --runs=100 --circles=1 --delete=false
+
+echo "#######################################################"
+echo "#  STRUCTURED_RANDOM, COMPILED with flattening        #"
+echo "#######################################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=STRUCTURED_RANDOM \
+  --file=src/main/resources/examples/structured_random/default_structured_random.yml \
+  --index=COMPILED --flattening --output=/tmp/sapl-benchmark/ --prefix="FLATTENING-SR-$TIMESTAMP" \
+  --runs=100 --circles=1 --delete=false
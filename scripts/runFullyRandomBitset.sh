@@ -0,0 +1,12 @@
+#!/bin/bash
+
+echo "############################################"
+echo "#    FULLY_RANDOM, CANONICAL vs BITSET     #"
+echo "############################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=FULLY_RANDOM \
+  --file=src/main/resources/examples/fully_random/default_fully_random.yml \
+  --index=CANONICAL,BITSET --output=/tmp/sapl-benchmark/ --prefix="BITSET-$TIMESTAMP" \
+  --runs=100 --circles=1 --delete=false
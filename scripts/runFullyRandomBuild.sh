@@ -0,0 +1,26 @@
+#!/bin/bash
+
+# the retained heap is measured with explicit full collections, a large heap keeps the 10^6 case from failing
+
+echo "#################################"
+echo "# FULLY_RANDOM BUILD, CANONICAL #"
+echo "#################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -Xmx16g -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=FULLY_RANDOM \
+  --file=src/main/resources/examples/fully_random/build_fully_random.yml \
+  --index=CANONICAL --output=/tmp/sapl-benchmark/ --prefix="BUILD-CANONICAL-$TIMESTAMP" \
+  --mode=BUILD --circles=3 --delete=true
+
+
+echo "#################################"
+echo "#   FULLY_RANDOM BUILD, NAIVE   #"
+echo "#################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -Xmx16g -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=FULLY_RANDOM \
+  --file=src/main/resources/examples/fully_random/build_fully_random.yml \
+  --index=NAIVE --output=/tmp/sapl-benchmark/ --prefix="BUILD-NAIVE-$TIMESTAMP" \
+  --mode=BUILD --circles=3 --delete=true
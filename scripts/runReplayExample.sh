@@ -0,0 +1,25 @@
+#!/bin/bash
+
+# the policy folder of a replay case is never deleted, --delete has no effect
+
+echo "#################################"
+echo "#       REPLAY, CANONICAL       #"
+echo "#################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=REPLAY \
+  --file=src/main/resources/examples/replay/replay_example.yml \
+  --index=CANONICAL --output=/tmp/sapl-benchmark/ --prefix="REPLAY-CANONICAL-$TIMESTAMP" \
+  --runs=10000 --circles=1
+
+echo "#################################"
+echo "#         REPLAY, NAIVE         #"
+echo "#################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=REPLAY \
+  --file=src/main/resources/examples/replay/replay_example.yml \
+  --index=NAIVE --output=/tmp/sapl-benchmark/ --prefix="REPLAY-NAIVE-$TIMESTAMP" \
+  --runs=10000 --circles=1
@@ -0,0 +1,12 @@
+#!/bin/bash
+
+echo "###############################################"
+echo "#  STRUCTURED_RANDOM, CANONICAL vs INVERTED   #"
+echo "###############################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=STRUCTURED_RANDOM \
+  --file=src/main/resources/examples/structured_random/single_structured_random.yml \
+  --index=CANONICAL,INVERTED --output=/tmp/sapl-benchmark/ --prefix="INVERTED-$TIMESTAMP" \
+  --runs=100 --circles=1 --delete=false
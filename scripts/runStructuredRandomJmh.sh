@@ -0,0 +1,19 @@
+#!/bin/bash
+
+echo "#################################"
+echo "#  STRUCTURED_RANDOM, JMH       #"
+echo "#################################"
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=STRUCTURED_RANDOM \
+  --file=src/main/resources/examples/structured_random/single_structured_random.yml \
+  --index=CANONICAL --output=/tmp/sapl-benchmark/ --prefix="JMH-CANONICAL-$TIMESTAMP" \
+  --runs=1000 --mode=JMH --jmh-forks=2 --jmh-warmups=5 --jmh-iterations=5
+
+TIMESTAMP=$(date '+%Y-%m-%d_%H-%M-%S')
+
+java -jar target/sapl-benchmark-index-2.0.0-SNAPSHOT.jar --benchmark=STRUCTURED_RANDOM \
+  --file=src/main/resources/examples/structured_random/single_structured_random.yml \
+  --index=NAIVE --output=/tmp/sapl-benchmark/ --prefix="JMH-NAIVE-$TIMESTAMP" \
+  --runs=1000 --mode=JMH --jmh-forks=2 --jmh-warmups=5 --jmh-iterations=5
@@ -0,0 +1,60 @@
+package io.sapl.benchmark;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.generator.SubscriptionGenerator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Subscriptions generated up front. Usually every run draws one at random. If the order of the subscriptions is part
+ * of the workload (see {@link SubscriptionGenerator#isOrdered()}), run i retrieves the i-th subscription instead,
+ * starting over at the end.
+ */
+class ArraySubscriptionSource implements SubscriptionSource {
+
+    private final AuthorizationSubscription[] subscriptions;
+    private final boolean ordered;
+    private final PolicyUtil policyUtil;
+    private final byte[] initialDiceState;
+
+    ArraySubscriptionSource(List<AuthorizationSubscription> subscriptions, boolean ordered, PolicyUtil policyUtil)
+            throws IOException {
+        this.subscriptions = subscriptions.toArray(new AuthorizationSubscription[0]);
+        this.ordered = ordered;
+        this.policyUtil = policyUtil;
+        this.initialDiceState = policyUtil.diceState();
+    }
+
+    @Override
+    public AuthorizationSubscription pick(long run, Random random) {
+        if (ordered)
+            return inOrder(run);
+        return subscriptions[random.nextInt(subscriptions.length)];
+    }
+
+    /**
+     * Draws with the dice of the case like {@link PolicyUtil#getRandomElement(List)}.
+     */
+    @Override
+    public AuthorizationSubscription pick(long run, PolicyUtil policyUtil) {
+        if (ordered)
+            return inOrder(run);
+        return subscriptions[policyUtil.roll(subscriptions.length)];
+    }
+
+    /**
+     * Restores the dice of the case to their state on creation, so that every iteration draws the same sequence.
+     */
+    @Override
+    public void rewind() throws IOException {
+        policyUtil.restoreDice(initialDiceState);
+    }
+
+    private AuthorizationSubscription inOrder(long run) {
+        return subscriptions[(int) (run % subscriptions.length)];
+    }
+
+}
@@ -1,8 +1,12 @@
 package io.sapl.benchmark;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.sapl.domain.model.DomainPolicy;
+import io.sapl.prp.PrpUpdateEvent;
 import lombok.Data;
 
 import java.nio.file.Path;
+import java.util.List;
 
 @Data
 public class BenchmarkCase {
@@ -11,8 +15,21 @@ public class BenchmarkCase {
 
     protected long seed;
 
+    @JsonIgnore
     Path policyFolderPath;
 
+    /**
+     * Generated policies of the case, only kept when policies are not written to the filesystem.
+     */
+    @JsonIgnore
+    List<DomainPolicy> generatedPolicies;
+
+    /**
+     * The generated policies, parsed once. Set instead of {@link #policyFolderPath} for the in-memory source.
+     */
+    @JsonIgnore
+    PrpUpdateEvent initialUpdateEvent;
+
     int numberOfRuns;
 
     int numberOfIterations;
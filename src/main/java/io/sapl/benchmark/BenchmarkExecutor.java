@@ -18,7 +18,17 @@ package io.sapl.benchmark;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.benchmark.index.IndexFactory;
+import io.sapl.benchmark.index.cache.CachingImmutableParsedDocumentIndex;
+import io.sapl.benchmark.jfr.IndexConstructionEvent;
+import io.sapl.benchmark.jfr.RetrievalEvent;
+import io.sapl.benchmark.jfr.WarmUpEvent;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
 import io.sapl.benchmark.results.BenchmarkRecord;
+import io.sapl.benchmark.results.BenchmarkThreadRecord;
+import io.sapl.benchmark.results.CacheRecord;
+import io.sapl.benchmark.util.AllocationMeter;
+import io.sapl.benchmark.util.HeapMeter;
+import io.sapl.benchmark.util.JvmActivityMonitor;
 import io.sapl.generator.GeneratorFactory;
 import io.sapl.generator.PolicyUtil;
 import io.sapl.generator.SubscriptionGenerator;
@@ -30,14 +40,14 @@ import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
 import io.sapl.interpreter.pip.AttributeContext;
 import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.PrpUpdateEvent;
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.HdrHistogram.Histogram;
 
 import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -45,6 +55,7 @@ import java.util.Map;
 public class BenchmarkExecutor {
 
     private static final double MILLION = 1000000.0D;
+    private static final double BILLION = 1000000000.0D;
 
     private static final Map<String, JsonNode> VARIABLES = Collections.emptyMap();
     private static final AttributeContext ATTRIBUTE_CONTEXT = new AnnotationAttributeContext();
@@ -52,63 +63,237 @@ public class BenchmarkExecutor {
 
     private final PolicyUtil policyUtil;
 
-    public List<BenchmarkRecord> runBenchmark(BenchmarkParameters parameters, BenchmarkCase benchmarkCase) {
+    public BenchmarkCaseResult runBenchmark(BenchmarkParameters parameters, BenchmarkCase benchmarkCase) {
 
-        List<BenchmarkRecord> results = new LinkedList<>();
+        var result = new BenchmarkCaseResult(benchmarkCase.getName(), parameters.getSampleInterval());
+        int iterations = Math.max(1, parameters.getBenchmarkIterations());
 
         var subscriptionGenerator = GeneratorFactory.subscriptionGeneratorByType(parameters, benchmarkCase, policyUtil);
 
-        log.info("running benchmark with config={}, runs={}", benchmarkCase.getName(), parameters.getRunsPerCase());
+        log.info("running benchmark with config={}, runs={}, iterations={}", benchmarkCase.getName(),
+                parameters.getRunsPerCase(), iterations);
 
         try {
-            log.debug("init index");
-            // create PRP
-            long begin = System.nanoTime();
-            log.info("Load generated polices into index...");
-            var initializedIndex = IndexFactory.indexByTypeForDocumentsIn(parameters.getIndexType(),
-                    benchmarkCase.getPolicyFolderPath().toString());
+            // generate AuthorizationSubscription
+            var subscriptions = SubscriptionSource.of(parameters.getSubscriptionSource(), subscriptionGenerator,
+                    subscriptionCount(parameters), policyUtil);
+
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                var iterationResult = new BenchmarkCaseResult(benchmarkCase.getName(), parameters.getSampleInterval());
+                subscriptions.rewind();
+                runIteration(parameters, benchmarkCase, subscriptions, iterationResult);
+                result.addIteration(iterationResult);
+                log.info("iteration {}/{}: median {}ns, {} ops/s", iteration + 1, iterations,
+                        iterationResult.getLatencies().getValueAtPercentile(50.0D), iterationResult.getThroughput());
+            }
 
-            double timePreparation = System.nanoTime() - begin;
+            var statistics = result.getIterationStatistics();
+            log.info("median over {} iterations: {}ns +/- {}ns (95% CI {}ns - {}ns)", statistics.getIterations(),
+                    statistics.getMean(), statistics.getStdDev(), statistics.getCiLower(), statistics.getCiUpper());
 
-            // warm up
-            warmUp(initializedIndex);
+            if (parameters.isFlatteningAnalysis())
+                result.getFlatteningRecords().add(new FlatteningAnalysis(policyUtil).run(benchmarkCase.getName(),
+                        IndexFactory.initialUpdateEventFor(benchmarkCase, parameters.getParseThreads()),
+                        subscriptions, parameters.getRunsPerCase()));
 
-            // generate AuthorizationSubscription
-            List<AuthorizationSubscription> subscriptions =
-                    subscriptionGenerator.generateSubscriptions(parameters.getRunsPerCase());
+        } catch (InterruptedException e) {
+            log.error("Interrupted while running test", e);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error running test", e);
+        }
 
-            for (int j = 0; j < parameters.getRunsPerCase(); j++) {
+        return result;
+    }
 
-                AuthorizationSubscription request = policyUtil.getRandomElement(subscriptions);
+    /**
+     * Builds a fresh index from the policy folder, warms it up and measures it. Nothing but the subscriptions is
+     * shared between iterations.
+     */
+    private void runIteration(BenchmarkParameters parameters, BenchmarkCase benchmarkCase,
+                              SubscriptionSource subscriptions, BenchmarkCaseResult result)
+            throws Exception {
+        log.debug("init index");
+        // create PRP
+        var constructionEvent = new IndexConstructionEvent(benchmarkCase.getName(),
+                parameters.getIndexType());
+        constructionEvent.begin();
+        long begin = System.nanoTime();
+        log.info("Load generated polices into index...");
+        var initialEvent = IndexFactory.initialUpdateEventFor(benchmarkCase, parameters.getParseThreads());
+        var initializedIndex = IndexFactory.indexForUpdateEvent(parameters, initialEvent);
+
+        double timePreparation = System.nanoTime() - begin;
+        constructionEvent.commit();
+        result.setTimePreparation(timePreparation);
+
+        // warm up
+        var warmUpEvent = new WarmUpEvent(benchmarkCase.getName());
+        warmUpEvent.begin();
+        warmUp(initializedIndex);
+        warmUpEvent.commit();
+        if (initializedIndex instanceof CachingImmutableParsedDocumentIndex) {
+            // the measurement starts with a cold cache
+            var cachedIndex = (CachingImmutableParsedDocumentIndex) initializedIndex;
+            cachedIndex.invalidate();
+            cachedIndex.getStatistics().reset();
+        }
 
-                long start = System.nanoTime();
-                EvaluationContext subscriptionScopedEvaluationCtx = new EvaluationContext(ATTRIBUTE_CONTEXT,
-                        FUNCTION_CONTEXT, VARIABLES).forAuthorizationSubscription(request);
-                PolicyRetrievalResult result = initializedIndex.retrievePolicies(subscriptionScopedEvaluationCtx)
-                        .block();
+        var jvmActivityMonitor = JvmActivityMonitor.start(benchmarkCase.getName());
+        ImmutableParsedDocumentIndex measuredIndex;
+        try {
+            measuredIndex = measure(parameters, benchmarkCase, initializedIndex, initialEvent, subscriptions,
+                    result);
+        } finally {
+            result.setJvmActivity(jvmActivityMonitor.stop());
+        }
+        log.info("{} GCs ({}ms), {}ms JIT compilation during measurement", result.getJvmActivity().getGcCount(),
+                result.getJvmActivity().getGcTimeMillis(), result.getJvmActivity().getCompilationTimeMillis());
 
-                if (result == null)
-                    throw new IllegalStateException("Policy retrieval returned 'null' result.");
+        if (measuredIndex instanceof CachingImmutableParsedDocumentIndex)
+            result.getCacheRecords().add(cacheRecord(result.getName(),
+                    (CachingImmutableParsedDocumentIndex) measuredIndex));
 
-                long end = System.nanoTime();
+        // log.debug("destroy index");
+        // documentIndex.destroyIndex();
+    }
 
-                //                double timeRetrieve = nanoToMs(end - start);
-                double timeRetrieve = end - start;
+    /**
+     * In the concurrent mode every thread retrieves the runs of the case. Enough subscriptions are generated for all
+     * threads, so that ordered subscriptions can be split into disjoint stretches instead of being replayed by every
+     * thread in lockstep.
+     */
+    private static int subscriptionCount(BenchmarkParameters parameters) {
+        if (parameters.getExecutionMode() == ExecutionMode.CONCURRENT)
+            return parameters.getRunsPerCase() * Math.max(1, parameters.getNumberOfThreads());
+        return parameters.getRunsPerCase();
+    }
 
-                results.add(new BenchmarkRecord(j, benchmarkCase.getName(), timePreparation, timeRetrieve,
-                        request.toString(), getNumberOfMatchingPolicies(result), getMatchingPolicyNames(result)));
+    /**
+     * @return the index current at the end of the measurement, the initialized index unless the mode updates it
+     */
+    private ImmutableParsedDocumentIndex measure(BenchmarkParameters parameters, BenchmarkCase benchmarkCase,
+                                                 ImmutableParsedDocumentIndex initializedIndex,
+                                                 PrpUpdateEvent initialEvent, SubscriptionSource subscriptions,
+                                                 BenchmarkCaseResult result) throws Exception {
+        switch (parameters.getExecutionMode()) {
+            case CONCURRENT:
+                new ConcurrentLoadGenerator(parameters.getNumberOfThreads(), parameters.getRampUpMillis())
+                        .runBenchmark(initializedIndex, subscriptions, parameters.getRunsPerCase(),
+                                benchmarkCase.getSeed(), result);
+                break;
+            case OPEN_LOOP:
+                new OpenLoopLoadGenerator(parameters.getRequestsPerSecond())
+                        .runBenchmark(initializedIndex, subscriptions, parameters.getRunsPerCase(), policyUtil,
+                                result);
+                break;
+            case REACTIVE:
+                new ReactiveLoadGenerator(parameters.getConcurrency(), parameters.getNumberOfThreads())
+                        .runBenchmark(initializedIndex, subscriptions, parameters.getRunsPerCase(),
+                                benchmarkCase.getSeed(), result);
+                break;
+            case VIRTUAL_THREADS:
+                new VirtualThreadLoadGenerator(parameters.getConcurrency())
+                        .runBenchmark(initializedIndex, subscriptions, parameters.getRunsPerCase(),
+                                benchmarkCase.getSeed(), result);
+                break;
+            case UPDATE:
+                return new IncrementalUpdateLoadGenerator(parameters.getUpdateDeltaSizes(),
+                        parameters.getUpdatesPerDeltaSize())
+                        .runBenchmark(initializedIndex, initialEvent, subscriptions, benchmarkCase.getSeed(), result);
+            case SEQUENTIAL:
+                //fall through
+            default:
+                runSequential(initializedIndex, subscriptions, parameters.getRunsPerCase(), result);
+        }
+        return initializedIndex;
+    }
 
-                log.debug("Total : {}ms", timeRetrieve);
-            }
+    private void runSequential(ImmutableParsedDocumentIndex index, SubscriptionSource subscriptions, int runs,
+                               BenchmarkCaseResult result) {
+        long begin = System.nanoTime();
+        for (int j = 0; j < runs; j++) {
+            AuthorizationSubscription request = subscriptions.pick(j, policyUtil);
+
+            var retrievalEvent = RetrievalEvent.start(result.getName());
+            long allocationBefore = AllocationMeter.allocatedBytes();
+            long start = System.nanoTime();
+            PolicyRetrievalResult retrievalResult = retrieve(index, request);
+            long timeRetrieve = System.nanoTime() - start;
+            long allocatedBytes = AllocationMeter.allocatedBytesSince(allocationBefore);
+            retrievalEvent.finish(retrievalResult);
+
+            BenchmarkCaseResult.recordLatency(result.getLatencies(), timeRetrieve);
+            BenchmarkCaseResult.recordAllocation(result.getAllocations(), allocatedBytes);
+            if (result.isSampled(j))
+                result.getRecords().add(benchmarkRecord(j, result, timeRetrieve, allocatedBytes, request,
+                        retrievalResult));
+
+            log.debug("Total : {}ns", timeRetrieve);
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / BILLION;
 
-            // log.debug("destroy index");
-            // documentIndex.destroyIndex();
+        result.setThroughput(runs / elapsedSeconds);
+        result.getThreadRecords().add(threadRecord(result.getName(), 0, result.getLatencies(), elapsedSeconds));
+    }
 
-        } catch (Exception e) {
-            log.error("Error running test", e);
-        }
+    /**
+     * Reads the statistics of the retrieval cache and measures the heap retained by its entries, by clearing the
+     * cache between two full collections. In the update mode, the cache of the version current after the last
+     * update is measured, the statistics cover all versions.
+     */
+    private static CacheRecord cacheRecord(String caseName, CachingImmutableParsedDocumentIndex index) {
+        var statistics = index.getStatistics();
+        long entries = index.getCachedEntries();
+        long heapWithCache = HeapMeter.usedHeapAfterGc();
+        index.invalidate();
+        long retainedBytes = heapWithCache - HeapMeter.usedHeapAfterGc();
+
+        log.info("retrieval cache ({}, {} entries max): hit ratio {}, {} evictions, {} entries retaining {} bytes",
+                index.getEviction(), index.getMaximumSize(), statistics.getHitRatio(), statistics.getEvictions(),
+                entries, retainedBytes);
+
+        return new CacheRecord(caseName, 0, index.getEviction().name(), index.getMaximumSize(), statistics.getHits(),
+                statistics.getMisses(), statistics.getHitRatio(), statistics.getEvictions(),
+                statistics.getInvalidatedEntries(), entries, retainedBytes);
+    }
+
+    static EvaluationContext subscriptionScopedEvaluationContext(AuthorizationSubscription request) {
+        return new EvaluationContext(ATTRIBUTE_CONTEXT, FUNCTION_CONTEXT, VARIABLES)
+                .forAuthorizationSubscription(request);
+    }
+
+    static PolicyRetrievalResult retrieve(ImmutableParsedDocumentIndex index, AuthorizationSubscription request) {
+        EvaluationContext subscriptionScopedEvaluationCtx = subscriptionScopedEvaluationContext(request);
+        PolicyRetrievalResult result = index.retrievePolicies(subscriptionScopedEvaluationCtx).block();
+
+        if (result == null)
+            throw new IllegalStateException("Policy retrieval returned 'null' result.");
+
+        return result;
+    }
+
+    /**
+     * Builds the detailed record of a sampled run. Only called outside of the timed section, as rendering the
+     * request and the matching policy names allocates considerably more than the retrieval itself.
+     */
+    static BenchmarkRecord benchmarkRecord(int number, BenchmarkCaseResult caseResult, long timeRetrieve,
+                                           long allocatedBytes, AuthorizationSubscription request,
+                                           PolicyRetrievalResult result) {
+        return new BenchmarkRecord(number, caseResult.getName(), caseResult.getTimePreparation(), timeRetrieve,
+                allocatedBytes, request.toString(), getNumberOfMatchingPolicies(result),
+                getMatchingPolicyNames(result));
+    }
+
+    static BenchmarkThreadRecord threadRecord(String caseName, int thread, Histogram latencies,
+                                              double elapsedSeconds) {
+        long runs = latencies.getTotalCount();
+        if (runs == 0)
+            return new BenchmarkThreadRecord(caseName, thread, 0, 0D, 0D, 0D, 0D, 0D);
 
-        return results;
+        return new BenchmarkThreadRecord(caseName, thread, (int) runs, latencies.getMinValue(),
+                latencies.getMaxValue(), latencies.getMean(), latencies.getValueAtPercentile(50.0D),
+                runs / elapsedSeconds);
     }
 
     private void warmUp(ImmutableParsedDocumentIndex documentIndex) {
@@ -116,8 +301,9 @@ public class BenchmarkExecutor {
                 FUNCTION_CONTEXT, VARIABLES)
                 .forAuthorizationSubscription(SubscriptionGenerator.createEmptySubscription());
         try {
+            // the retrieval is lazy, without subscribing to the Mono nothing is evaluated at all
             for (int i = 0; i < 10; i++) {
-                documentIndex.retrievePolicies(emptySubscriptionScopedEvaluationCtx);
+                documentIndex.retrievePolicies(emptySubscriptionScopedEvaluationCtx).block();
             }
         } catch (Exception ignored) {
             log.error("error during warm-up", ignored);
@@ -125,7 +311,7 @@ public class BenchmarkExecutor {
     }
 
 
-    private String getMatchingPolicyNames(PolicyRetrievalResult result) {
+    private static String getMatchingPolicyNames(PolicyRetrievalResult result) {
         val sb = new StringBuilder();
         sb.append("[");
 
@@ -143,7 +329,7 @@ public class BenchmarkExecutor {
         return sb.toString().replace(", ]", "]");
     }
 
-    private String getNumberOfMatchingPolicies(PolicyRetrievalResult result) {
+    private static String getNumberOfMatchingPolicies(PolicyRetrievalResult result) {
         return "" + result.getMatchingDocuments().size();
     }
 
@@ -1,23 +1,35 @@
 package io.sapl.benchmark;
 
+import io.sapl.benchmark.index.IndexFactory;
+import io.sapl.benchmark.index.IndexProvider;
 import io.sapl.benchmark.index.IndexType;
+import io.sapl.benchmark.index.cache.CacheEviction;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class BenchmarkParameters {
 
     //    String name;
 
     //    long seed;
 
-    IndexType indexType;
+    /**
+     * Name of the index, one of the {@link IndexType}s or the name of an {@link IndexProvider}.
+     */
+    String indexType;
 
     BenchmarkType benchmarkType;
 
+    ExecutionMode executionMode;
+
     int runsPerCase;
 
+    int sampleInterval;
+
     int benchmarkIterations;
 
     String outputPath;
@@ -28,4 +40,48 @@ public class BenchmarkParameters {
 
     boolean deletePoliciesAfterBenchmark;
 
+    PolicySource policySource;
+
+    SubscriptionSourceType subscriptionSource;
+
+    int parseThreads;
+
+    boolean parseScaling;
+
+    String policyCacheDirectory;
+
+    int numberOfThreads;
+
+    long rampUpMillis;
+
+    double requestsPerSecond;
+
+    int concurrency;
+
+    int jmhForks;
+
+    int jmhWarmupIterations;
+
+    int jmhMeasurementIterations;
+
+    boolean flightRecording;
+
+    List<Integer> updateDeltaSizes;
+
+    int updatesPerDeltaSize;
+
+    CacheEviction cacheEviction;
+
+    /**
+     * Maximum number of cached retrieval results. 0 disables caching, as a control run of the cached index types.
+     */
+    @Builder.Default
+    int cacheSize = IndexFactory.DEFAULT_CACHE_SIZE;
+
+    /**
+     * Additionally weighs the cost of flattening subscriptions for the COMPILED index against the path walks it
+     * saves, see {@link FlatteningAnalysis}.
+     */
+    boolean flatteningAnalysis;
+
 }
@@ -1,5 +1,5 @@
 package io.sapl.benchmark;
 
 public enum BenchmarkType {
-    STRUCTURED_RANDOM, FULLY_RANDOM
+    STRUCTURED_RANDOM, FULLY_RANDOM, REPLAY
 }
@@ -0,0 +1,107 @@
+package io.sapl.benchmark;
+
+import io.sapl.benchmark.jfr.RetrievalEvent;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
+import io.sapl.benchmark.results.BenchmarkRecord;
+import io.sapl.benchmark.util.AllocationMeter;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a single shared index from a fixed number of threads. Thread i starts i/n of the ramp-up period after the
+ * first one, and every thread performs the configured number of runs on its own random sequence of subscriptions.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class ConcurrentLoadGenerator {
+
+    private static final double BILLION = 1000000000.0D;
+
+    private final int numberOfThreads;
+    private final long rampUpMillis;
+
+    void runBenchmark(ImmutableParsedDocumentIndex index, SubscriptionSource subscriptions, int runsPerThread,
+                      long seed, BenchmarkCaseResult result) throws InterruptedException, ExecutionException {
+
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        var startSignal = new CountDownLatch(1);
+
+        log.info("starting {} threads with a ramp-up of {}ms", numberOfThreads, rampUpMillis);
+
+        List<Future<List<BenchmarkRecord>>> threadResults = new ArrayList<>(numberOfThreads);
+        Histogram[] threadLatencies = new Histogram[numberOfThreads];
+        Histogram[] threadAllocations = new Histogram[numberOfThreads];
+        double[] threadSeconds = new double[numberOfThreads];
+        for (int t = 0; t < numberOfThreads; t++) {
+            final int thread = t;
+            final long startDelayMillis = rampUpMillis * thread / numberOfThreads;
+            threadLatencies[thread] = BenchmarkCaseResult.newLatencyHistogram();
+            threadAllocations[thread] = BenchmarkCaseResult.newAllocationHistogram();
+            threadResults.add(executor.submit(() -> {
+                startSignal.await();
+                TimeUnit.MILLISECONDS.sleep(startDelayMillis);
+
+                var random = new Random(seed + thread);
+                var latencies = threadLatencies[thread];
+                var allocations = threadAllocations[thread];
+                List<BenchmarkRecord> records = new ArrayList<>();
+                long begin = System.nanoTime();
+                for (int j = 0; j < runsPerThread; j++) {
+                    // an array source holds runsPerThread subscriptions per thread, ordered subscriptions are thus
+                    // split into disjoint consecutive stretches, one per thread
+                    var request = subscriptions.pick((long) thread * runsPerThread + j, random);
+
+                    var retrievalEvent = RetrievalEvent.start(result.getName());
+                    long allocationBefore = AllocationMeter.allocatedBytes();
+                    long start = System.nanoTime();
+                    var retrievalResult = BenchmarkExecutor.retrieve(index, request);
+                    long timeRetrieve = System.nanoTime() - start;
+                    long allocatedBytes = AllocationMeter.allocatedBytesSince(allocationBefore);
+                    retrievalEvent.finish(retrievalResult);
+
+                    BenchmarkCaseResult.recordLatency(latencies, timeRetrieve);
+                    BenchmarkCaseResult.recordAllocation(allocations, allocatedBytes);
+                    if (result.isSampled(j))
+                        records.add(BenchmarkExecutor.benchmarkRecord(thread * runsPerThread + j, result,
+                                timeRetrieve, allocatedBytes, request, retrievalResult));
+                }
+                threadSeconds[thread] = (System.nanoTime() - begin) / BILLION;
+                return records;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        startSignal.countDown();
+
+        try {
+            for (int t = 0; t < numberOfThreads; t++) {
+                result.getRecords().addAll(threadResults.get(t).get());
+                result.getLatencies().add(threadLatencies[t]);
+                result.getAllocations().add(threadAllocations[t]);
+                result.getThreadRecords().add(BenchmarkExecutor
+                        .threadRecord(result.getName(), t, threadLatencies[t], threadSeconds[t]));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double elapsedSeconds = (System.nanoTime() - begin) / BILLION;
+        long totalRuns = result.getLatencies().getTotalCount();
+        result.setThroughput(totalRuns / elapsedSeconds);
+
+        log.info("{} retrievals on {} threads in {}s ({} ops/s)", totalRuns, numberOfThreads, elapsedSeconds,
+                result.getThroughput());
+    }
+
+}
@@ -0,0 +1,5 @@
+package io.sapl.benchmark;
+
+public enum ExecutionMode {
+    SEQUENTIAL, CONCURRENT, OPEN_LOOP, REACTIVE, VIRTUAL_THREADS, JMH, BUILD, UPDATE
+}
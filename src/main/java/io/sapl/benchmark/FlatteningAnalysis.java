@@ -0,0 +1,97 @@
+package io.sapl.benchmark;
+
+import io.sapl.benchmark.index.IndexFactory;
+import io.sapl.benchmark.index.IndexType;
+import io.sapl.benchmark.index.compiled.CompiledImmutableParsedDocumentIndex;
+import io.sapl.benchmark.index.flat.AttributeSlots;
+import io.sapl.benchmark.index.flat.FlatSubscription;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
+import io.sapl.benchmark.results.FlatteningRecord;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.PrpUpdateEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * Weighs the cost of flattening a subscription into attribute slots against the path walks it avoids. The documents
+ * of the case are loaded into a COMPILED index. Every subscription is flattened and retrieved from the flattened
+ * slots, and retrieved by the same compiled targets reading every literal through its path in the JSON tree, each
+ * step timed on its own. The analysis does not depend on the measured index and runs once per case.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class FlatteningAnalysis {
+
+    private static final int WARM_UP_RUNS = 1000;
+
+    private final PolicyUtil policyUtil;
+
+    FlatteningRecord run(String caseName, PrpUpdateEvent initialEvent, SubscriptionSource subscriptions, int runs)
+            throws IOException {
+        var compiled = (CompiledImmutableParsedDocumentIndex) IndexFactory
+                .indexByTypeForUpdateEvent(IndexType.COMPILED, initialEvent);
+        var slots = compiled.getAttributeSlots();
+
+        subscriptions.rewind();
+        for (int j = 0; j < WARM_UP_RUNS; j++) {
+            var context = BenchmarkExecutor.subscriptionScopedEvaluationContext(subscriptions.pick(j, policyUtil));
+            retrieve(compiled, slots.flatten(context), context);
+            retrieve(compiled, slots.walking(context), context);
+        }
+
+        var flattening = BenchmarkCaseResult.newLatencyHistogram();
+        var flatRetrieval = BenchmarkCaseResult.newLatencyHistogram();
+        var flattenedTotal = BenchmarkCaseResult.newLatencyHistogram();
+        var pathWalkingRetrieval = BenchmarkCaseResult.newLatencyHistogram();
+
+        subscriptions.rewind();
+        for (int j = 0; j < runs; j++) {
+            var context = BenchmarkExecutor.subscriptionScopedEvaluationContext(subscriptions.pick(j, policyUtil));
+
+            long start = System.nanoTime();
+            var flatSubscription = slots.flatten(context);
+            long flattened = System.nanoTime();
+            retrieve(compiled, flatSubscription, context);
+            long retrieved = System.nanoTime();
+            retrieve(compiled, slots.walking(context), context);
+            long walked = System.nanoTime();
+
+            BenchmarkCaseResult.recordLatency(flattening, flattened - start);
+            BenchmarkCaseResult.recordLatency(flatRetrieval, retrieved - flattened);
+            BenchmarkCaseResult.recordLatency(flattenedTotal, retrieved - start);
+            BenchmarkCaseResult.recordLatency(pathWalkingRetrieval, walked - retrieved);
+        }
+
+        return record(caseName, compiled, slots, flattening.getTotalCount(),
+                flattening.getValueAtPercentile(50.0D), flattening.getValueAtPercentile(99.0D),
+                flatRetrieval.getValueAtPercentile(50.0D), flattenedTotal.getValueAtPercentile(50.0D),
+                pathWalkingRetrieval.getValueAtPercentile(50.0D));
+    }
+
+    private static FlatteningRecord record(String caseName, CompiledImmutableParsedDocumentIndex compiled,
+                                           AttributeSlots slots, long runs, double mdnFlattening,
+                                           double p99Flattening, double mdnFlatRetrieval, double mdnFlattenedTotal,
+                                           double mdnPathWalkingRetrieval) {
+        double mdnNetSaved = mdnPathWalkingRetrieval - mdnFlattenedTotal;
+        double pathWalks = mdnPathWalkingRetrieval - mdnFlatRetrieval;
+        double flatteningShare = pathWalks > 0D ? mdnFlattening / pathWalks : Double.NaN;
+
+        log.info("flattening {} slots ({} compiled, {} residual documents): {}ns, path walks {}ns, net saved {}ns",
+                slots.size(), compiled.getCompiledDocumentCount(), compiled.getResidualDocumentCount(), mdnFlattening,
+                pathWalks, mdnNetSaved);
+
+        return new FlatteningRecord(caseName, slots.size(), compiled.getCompiledDocumentCount(),
+                compiled.getResidualDocumentCount(), runs, mdnFlattening, p99Flattening, mdnFlatRetrieval,
+                mdnFlattenedTotal, mdnPathWalkingRetrieval, mdnNetSaved, flatteningShare);
+    }
+
+    private static void retrieve(CompiledImmutableParsedDocumentIndex index, FlatSubscription subscription,
+                                 EvaluationContext context) {
+        if (index.retrievePolicies(subscription, context).block() == null)
+            throw new IllegalStateException("Policy retrieval returned 'null' result.");
+    }
+
+}
@@ -0,0 +1,153 @@
+package io.sapl.benchmark;
+
+import io.sapl.benchmark.jfr.RetrievalEvent;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
+import io.sapl.benchmark.util.AllocationMeter;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Applies streams of small update events to a fully built index while a reader thread keeps retrieving from
+ * whatever index is current, the way a PDP swaps its index when policies change. For every delta size, random
+ * documents of the initial event are unpublished and published again, so the index oscillates around its initial
+ * content. The time to apply each event is recorded per delta size. Delta sizes larger than the case are clamped to
+ * all of its documents and recorded under the clamped size. At most {@value #MAX_RECORDS} detailed records are kept.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class IncrementalUpdateLoadGenerator {
+
+    private static final double BILLION = 1000000000.0D;
+
+    /**
+     * The reader runs as long as the updates take, the detailed records are capped so that the heap they retain, and
+     * the GC activity measured alongside the updates, does not depend on that duration.
+     */
+    static final int MAX_RECORDS = 10000;
+
+    private final List<Integer> deltaSizes;
+    private final int updatesPerDeltaSize;
+
+    /**
+     * @return the version of the index current after the last update
+     */
+    ImmutableParsedDocumentIndex runBenchmark(ImmutableParsedDocumentIndex initialIndex, PrpUpdateEvent initialEvent,
+                                              SubscriptionSource subscriptions, long seed, BenchmarkCaseResult result)
+            throws InterruptedException, ExecutionException {
+        var documents = Arrays.stream(initialEvent.getUpdates()).filter(update -> update.getType() == Type.PUBLISH)
+                .toArray(Update[]::new);
+        var currentIndex = new AtomicReference<>(initialIndex);
+        var updating = new AtomicBoolean(true);
+
+        log.info("applying {} updates per delta size {} to an index of {} documents", updatesPerDeltaSize,
+                deltaSizes, documents.length);
+
+        var reader = Executors.newSingleThreadExecutor();
+        var readerResult = reader.submit(() -> {
+            var random = new Random(seed);
+            // only the reader writes to the result until the updates are done
+            var latencies = result.getLatencies();
+            var allocations = result.getAllocations();
+            var records = result.getRecords();
+            long begin = System.nanoTime();
+            int run = 0;
+            while (updating.get()) {
+                var request = subscriptions.pick(run, random);
+
+                var index = currentIndex.get();
+
+                var retrievalEvent = RetrievalEvent.start(result.getName());
+                long allocationBefore = AllocationMeter.allocatedBytes();
+                long start = System.nanoTime();
+                var retrievalResult = BenchmarkExecutor.retrieve(index, request);
+                long timeRetrieve = System.nanoTime() - start;
+                long allocatedBytes = AllocationMeter.allocatedBytesSince(allocationBefore);
+                retrievalEvent.finish(retrievalResult);
+
+                BenchmarkCaseResult.recordLatency(latencies, timeRetrieve);
+                BenchmarkCaseResult.recordAllocation(allocations, allocatedBytes);
+                if (result.isSampled(run) && records.size() < MAX_RECORDS)
+                    records.add(BenchmarkExecutor.benchmarkRecord(run, result, timeRetrieve, allocatedBytes,
+                            request, retrievalResult));
+                run++;
+            }
+            return (System.nanoTime() - begin) / BILLION;
+        });
+
+        double elapsedSeconds;
+        try {
+            var random = new Random(seed + 1);
+            for (int deltaSize : deltaSizes) {
+                int size = Math.min(deltaSize, documents.length);
+                if (size < deltaSize)
+                    log.warn("delta size {} exceeds the {} documents of the case, updating {} documents instead",
+                            deltaSize, documents.length, size);
+                if (size == 0)
+                    continue;
+                var updateLatencies = BenchmarkCaseResult.newLatencyHistogram();
+                for (int u = 0; u < updatesPerDeltaSize; u++) {
+                    var delta = randomDelta(documents, size, random);
+                    applyTimed(currentIndex, delta, Type.UNPUBLISH, updateLatencies);
+                    applyTimed(currentIndex, delta, Type.PUBLISH, updateLatencies);
+                }
+                // keyed by the number of documents actually updated, clamped delta sizes may coincide
+                result.getUpdateLatencies().merge(size, updateLatencies, (total, histogram) -> {
+                    total.add(histogram);
+                    return total;
+                });
+                log.info("delta size {}: median update {}ns, p99 {}ns", size,
+                        updateLatencies.getValueAtPercentile(50.0D), updateLatencies.getValueAtPercentile(99.0D));
+            }
+        } finally {
+            updating.set(false);
+            elapsedSeconds = readerResult.get();
+            reader.shutdownNow();
+        }
+
+        result.setThroughput(result.getLatencies().getTotalCount() / elapsedSeconds);
+        result.getThreadRecords()
+                .add(BenchmarkExecutor.threadRecord(result.getName(), 0, result.getLatencies(), elapsedSeconds));
+        return currentIndex.get();
+    }
+
+    private static void applyTimed(AtomicReference<ImmutableParsedDocumentIndex> currentIndex, List<Update> delta,
+                                   Type type, Histogram updateLatencies) {
+        List<Update> updates = new ArrayList<>(delta.size());
+        for (Update document : delta)
+            updates.add(new Update(type, document.getDocument(), document.getRawText()));
+        var event = new PrpUpdateEvent(updates);
+
+        long start = System.nanoTime();
+        var updatedIndex = currentIndex.get().apply(event);
+        long timeUpdate = System.nanoTime() - start;
+
+        currentIndex.set(updatedIndex);
+        BenchmarkCaseResult.recordLatency(updateLatencies, timeUpdate);
+    }
+
+    private static List<Update> randomDelta(Update[] documents, int size, Random random) {
+        // partial Fisher-Yates shuffle of the first size elements
+        for (int i = 0; i < size; i++) {
+            int j = i + random.nextInt(documents.length - i);
+            var swap = documents[i];
+            documents[i] = documents[j];
+            documents[j] = swap;
+        }
+        return Arrays.asList(Arrays.copyOf(documents, size));
+    }
+
+}
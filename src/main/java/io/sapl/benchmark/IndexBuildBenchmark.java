@@ -0,0 +1,150 @@
+package io.sapl.benchmark;
+
+import io.sapl.benchmark.index.IndexFactory;
+import io.sapl.benchmark.index.ParallelPolicyParser;
+import io.sapl.benchmark.jfr.IndexConstructionEvent;
+import io.sapl.benchmark.results.BuildRecord;
+import io.sapl.benchmark.results.ParseScalingRecord;
+import io.sapl.benchmark.util.HeapMeter;
+import io.sapl.domain.model.DomainPolicy;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long it takes to read and parse the documents of a case and to build an index from them, and how
+ * much heap the result retains. Parsing and construction are timed separately. With the in-memory source, parsing
+ * starts from the generated policy texts and excludes any I/O. Retained sizes are the differences of the used heap
+ * after full collections, taken before parsing, after parsing and after the parsed event has been dropped.
+ */
+@Slf4j
+public class IndexBuildBenchmark {
+
+    private static final int MIN_PARSE_SCALING_REPETITIONS = 5;
+
+    public List<BuildRecord> runBenchmark(BenchmarkParameters parameters, BenchmarkCase benchmarkCase) {
+        int iterations = Math.max(1, parameters.getBenchmarkIterations());
+        List<BuildRecord> records = new ArrayList<>(iterations);
+
+        log.info("running build benchmark with config={}, iterations={}", benchmarkCase.getName(), iterations);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            var record = runIteration(parameters, benchmarkCase, iteration);
+            log.info("iteration {}/{}: {} documents parsed in {}ms, index built in {}ms, retaining {} bytes",
+                    iteration + 1, iterations, record.getDocumentCount(), record.getTimeParsing() / 1000000.0D,
+                    record.getTimeConstruction() / 1000000.0D, record.getIndexBytes());
+            records.add(record);
+        }
+
+        return records;
+    }
+
+    /**
+     * Parses the documents of the case with 1, 2, 4, ... threads up to the number of available processors. Every
+     * point, including the single-threaded baseline, uses the {@link ParallelPolicyParser}, so that the speedup only
+     * reflects the number of threads. The documents are parsed once on all threads beforehand, so that the baseline
+     * is not slowed down by JIT compilation, and every point is repeated, reporting the median.
+     */
+    public List<ParseScalingRecord> measureParseScaling(BenchmarkParameters parameters,
+                                                        BenchmarkCase benchmarkCase) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < processors; threads *= 2)
+            threadCounts.add(threads);
+        threadCounts.add(processors);
+        int repetitions = Math.max(MIN_PARSE_SCALING_REPETITIONS, parameters.getBenchmarkIterations());
+
+        log.info("measuring parse scaling of {} on {} threads, {} repetitions each", benchmarkCase.getName(),
+                threadCounts, repetitions);
+        parseInParallel(benchmarkCase, processors);
+
+        List<ParseScalingRecord> records = new ArrayList<>(threadCounts.size());
+        double singleThreadedThroughput = 0D;
+        for (int threads : threadCounts) {
+            double[] timesParsing = new double[repetitions];
+            int documentCount = 0;
+            for (int repetition = 0; repetition < repetitions; repetition++) {
+                long begin = System.nanoTime();
+                documentCount = parseInParallel(benchmarkCase, threads).getUpdates().length;
+                timesParsing[repetition] = System.nanoTime() - begin;
+            }
+            double timeParsing = median(timesParsing);
+
+            double documentsPerSecond = documentCount / (timeParsing / 1000000000.0D);
+            if (threads == 1)
+                singleThreadedThroughput = documentsPerSecond;
+
+            records.add(new ParseScalingRecord(benchmarkCase.getName(), threads, documentCount, repetitions,
+                    timeParsing, documentsPerSecond, documentsPerSecond / singleThreadedThroughput));
+            log.info("{} threads: {} documents/s", threads, documentsPerSecond);
+        }
+        return records;
+    }
+
+    private static PrpUpdateEvent parseInParallel(BenchmarkCase benchmarkCase, int threads) {
+        var parser = new ParallelPolicyParser(threads);
+        if (benchmarkCase.getGeneratedPolicies() != null)
+            return parser.parseTexts(benchmarkCase.getGeneratedPolicies().stream()
+                    .map(DomainPolicy::getPolicyContent).collect(Collectors.toList()));
+        try {
+            return parser.parseFolder(benchmarkCase.getPolicyFolderPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2D;
+    }
+
+    private static PrpUpdateEvent parse(BenchmarkCase benchmarkCase, int parseThreads) {
+        if (benchmarkCase.getGeneratedPolicies() != null)
+            return IndexFactory.parseUpdateEvent(benchmarkCase.getGeneratedPolicies(), parseThreads);
+        return IndexFactory.fetchInitialUpdateEvent(benchmarkCase.getPolicyFolderPath().toString(), parseThreads);
+    }
+
+    private BuildRecord runIteration(BenchmarkParameters parameters, BenchmarkCase benchmarkCase, int iteration) {
+        long heapBaseline = HeapMeter.usedHeapAfterGc();
+
+        long begin = System.nanoTime();
+        PrpUpdateEvent updateEvent = parse(benchmarkCase, parameters.getParseThreads());
+        double timeParsing = System.nanoTime() - begin;
+        int documentCount = updateEvent.getUpdates().length;
+
+        long heapParsed = HeapMeter.usedHeapAfterGc();
+
+        var constructionEvent = new IndexConstructionEvent(benchmarkCase.getName(), parameters.getIndexType());
+        constructionEvent.begin();
+        begin = System.nanoTime();
+        ImmutableParsedDocumentIndex index =
+                IndexFactory.indexForUpdateEvent(parameters, updateEvent);
+        double timeConstruction = System.nanoTime() - begin;
+        constructionEvent.commit();
+
+        // the index keeps the parsed documents reachable, the event itself becomes garbage
+        updateEvent = null;
+        long heapIndex = HeapMeter.usedHeapAfterGc();
+        // the index must not be collected before the last heap reading
+        Reference.reachabilityFence(index);
+
+        long parsedDocumentsBytes = heapParsed - heapBaseline;
+        long indexBytes = heapIndex - heapBaseline;
+
+        var record = new BuildRecord(benchmarkCase.getName(), iteration, documentCount, timeParsing,
+                timeConstruction, parsedDocumentsBytes, indexBytes, indexBytes - parsedDocumentsBytes);
+
+        return record;
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.sapl.benchmark;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.benchmark.jfr.RetrievalEvent;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
+import io.sapl.benchmark.util.AllocationMeter;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues subscriptions at a constant arrival rate instead of waiting for the previous retrieval. Run j is
+ * scheduled at begin + j * interval. If a retrieval stalls, the following runs start late and their latency is
+ * measured from the intended start, which corrects for coordinated omission. The pure service time of every
+ * retrieval is recorded separately.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class OpenLoopLoadGenerator {
+
+    private static final double BILLION = 1000000000.0D;
+
+    // parking is too coarse for short intervals, the last stretch before the intended start is spun
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final double requestsPerSecond;
+
+    void runBenchmark(ImmutableParsedDocumentIndex index, SubscriptionSource subscriptions, int runs,
+                      PolicyUtil policyUtil, BenchmarkCaseResult result) {
+        long intervalNanos = (long) (BILLION / requestsPerSecond);
+        var serviceTimes = BenchmarkCaseResult.newLatencyHistogram();
+
+        log.info("issuing {} requests at {} requests/s (every {}ns)", runs, requestsPerSecond, intervalNanos);
+
+        long begin = System.nanoTime();
+        for (int j = 0; j < runs; j++) {
+            AuthorizationSubscription request = subscriptions.pick(j, policyUtil);
+
+            long intendedStart = begin + j * intervalNanos;
+            waitUntil(intendedStart);
+
+            var retrievalEvent = RetrievalEvent.start(result.getName());
+            long allocationBefore = AllocationMeter.allocatedBytes();
+            long start = System.nanoTime();
+            var retrievalResult = BenchmarkExecutor.retrieve(index, request);
+            long end = System.nanoTime();
+            long allocatedBytes = AllocationMeter.allocatedBytesSince(allocationBefore);
+            retrievalEvent.finish(retrievalResult);
+
+            long responseTime = end - intendedStart;
+            BenchmarkCaseResult.recordLatency(result.getLatencies(), responseTime);
+            BenchmarkCaseResult.recordLatency(serviceTimes, end - start);
+            BenchmarkCaseResult.recordAllocation(result.getAllocations(), allocatedBytes);
+            if (result.isSampled(j))
+                result.getRecords().add(BenchmarkExecutor.benchmarkRecord(j, result, responseTime, allocatedBytes,
+                        request, retrievalResult));
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / BILLION;
+
+        result.setServiceTimes(serviceTimes);
+        result.setThroughput(runs / elapsedSeconds);
+        result.getThreadRecords()
+                .add(BenchmarkExecutor.threadRecord(result.getName(), 0, result.getLatencies(), elapsedSeconds));
+
+        if (result.getThroughput() < requestsPerSecond * 0.95D)
+            log.warn("achieved {} requests/s, the index could not sustain the target rate of {} requests/s",
+                    result.getThroughput(), requestsPerSecond);
+
+        log.info("p99.9 response time {}ns (service time {}ns)", result.getLatencies().getValueAtPercentile(99.9D),
+                serviceTimes.getValueAtPercentile(99.9D));
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS)
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            else
+                Thread.onSpinWait();
+        }
+    }
+
+}
@@ -0,0 +1,5 @@
+package io.sapl.benchmark;
+
+public enum PolicySource {
+    FILESYSTEM, MEMORY
+}
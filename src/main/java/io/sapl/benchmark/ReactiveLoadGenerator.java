@@ -0,0 +1,85 @@
+package io.sapl.benchmark;
+
+import io.sapl.benchmark.jfr.RetrievalEvent;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
+import io.sapl.benchmark.results.BenchmarkRecord;
+import io.sapl.benchmark.util.AllocationMeter;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs the retrievals without blocking, as a Flux that keeps up to {@code concurrency} retrievals in flight on a
+ * parallel scheduler. Besides the retrieval latency, the time between handing a subscription to the scheduler and
+ * the start of its retrieval on a worker is recorded.
+ * <p>
+ * Allocations are not measured, as a retrieval is not guaranteed to stay on the thread it was started on.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class ReactiveLoadGenerator {
+
+    private static final double BILLION = 1000000000.0D;
+
+    private final int concurrency;
+    private final int numberOfThreads;
+
+    void runBenchmark(ImmutableParsedDocumentIndex index, SubscriptionSource subscriptions, int runs, long seed,
+                      BenchmarkCaseResult result) {
+        var random = new Random(seed);
+        var latencies = BenchmarkCaseResult.newConcurrentLatencyHistogram();
+        var handOffTimes = BenchmarkCaseResult.newConcurrentLatencyHistogram();
+        List<BenchmarkRecord> records = Collections.synchronizedList(new ArrayList<>());
+        var scheduler = Schedulers.newParallel("sapl-benchmark", numberOfThreads);
+
+        log.info("running {} retrievals with concurrency {} on {} scheduler threads", runs, concurrency,
+                numberOfThreads);
+
+        long begin = System.nanoTime();
+        try {
+            Flux.range(0, runs).flatMap(j -> {
+                var request = subscriptions.pick(j, random);
+                long submitted = System.nanoTime();
+                return Mono.fromCallable(System::nanoTime).subscribeOn(scheduler).flatMap(started -> {
+                    BenchmarkCaseResult.recordLatency(handOffTimes, started - submitted);
+                    // committed by the thread that completes the retrieval
+                    var retrievalEvent = RetrievalEvent.start(result.getName());
+                    return index.retrievePolicies(BenchmarkExecutor.subscriptionScopedEvaluationContext(request))
+                            .doOnNext(retrievalResult -> {
+                                long timeRetrieve = System.nanoTime() - started;
+                                BenchmarkCaseResult.recordLatency(latencies, timeRetrieve);
+                                retrievalEvent.finish(retrievalResult);
+                                if (result.isSampled(j))
+                                    records.add(BenchmarkExecutor.benchmarkRecord(j, result, timeRetrieve,
+                                            AllocationMeter.UNSUPPORTED, request, retrievalResult));
+                            });
+                });
+            }, concurrency).then().block();
+        } finally {
+            scheduler.dispose();
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / BILLION;
+
+        result.getLatencies().add(latencies);
+        result.setHandOffTimes(handOffTimes);
+        // records arrive in completion order
+        records.sort(Comparator.comparingInt(BenchmarkRecord::getNumber));
+        result.getRecords().addAll(records);
+        result.setThroughput(runs / elapsedSeconds);
+        result.getThreadRecords()
+                .add(BenchmarkExecutor.threadRecord(result.getName(), 0, result.getLatencies(), elapsedSeconds));
+
+        log.info("{} ops/s, median scheduler hand-off {}ns, median retrieval {}ns", result.getThroughput(),
+                handOffTimes.getValueAtPercentile(50.0D), latencies.getValueAtPercentile(50.0D));
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.sapl.benchmark;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.generator.SubscriptionGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates subscriptions in chunks of {@value #CHUNK_SIZE} as they are retrieved, keeping a single chunk per picking
+ * thread in memory. The generated subscriptions are independent draws of the generator, so they are retrieved in
+ * order and the random number generators of the load generators are not used.
+ * <p>
+ * The generator shares the dice of the case, whose state is saved on creation and restored on every rewind. Every
+ * thread picks from a chunk of its own, so threads only synchronize when generating a chunk, not on every pick. With
+ * several picking threads, as in the concurrent mode, which thread gets which chunk depends on the scheduling, and a
+ * thread generating a chunk still stalls inside the wall-clock time the throughput is computed from.
+ */
+@Slf4j
+class StreamingSubscriptionSource implements SubscriptionSource {
+
+    static final int CHUNK_SIZE = 10000;
+
+    private final SubscriptionGenerator generator;
+    private final PolicyUtil policyUtil;
+    private final byte[] initialDiceState;
+
+    private final ThreadLocal<Cursor> cursors = ThreadLocal.withInitial(Cursor::new);
+
+    // incremented on every rewind, cursors of an earlier rewind start over with a new chunk
+    private volatile int rewinds;
+
+    StreamingSubscriptionSource(SubscriptionGenerator generator, PolicyUtil policyUtil) throws IOException {
+        this.generator = generator;
+        this.policyUtil = policyUtil;
+        this.initialDiceState = policyUtil.diceState();
+    }
+
+    @Override
+    public AuthorizationSubscription pick(long run, Random random) {
+        return next();
+    }
+
+    @Override
+    public AuthorizationSubscription pick(long run, PolicyUtil policyUtil) {
+        return next();
+    }
+
+    @Override
+    public synchronized void rewind() throws IOException {
+        policyUtil.restoreDice(initialDiceState);
+        rewinds++;
+    }
+
+    private AuthorizationSubscription next() {
+        var cursor = cursors.get();
+        int currentRewinds = rewinds;
+        if (cursor.rewinds != currentRewinds || cursor.next == cursor.chunk.size()) {
+            cursor.chunk = nextChunk();
+            cursor.next = 0;
+            cursor.rewinds = currentRewinds;
+        }
+        return cursor.chunk.get(cursor.next++);
+    }
+
+    private synchronized List<AuthorizationSubscription> nextChunk() {
+        long begin = System.nanoTime();
+        var chunk = generator.generateSubscriptions(CHUNK_SIZE);
+        log.debug("generated {} subscriptions in {}ns", chunk.size(), System.nanoTime() - begin);
+        return chunk;
+    }
+
+    /**
+     * Position of a thread in the chunk it picks from.
+     */
+    private static final class Cursor {
+
+        private List<AuthorizationSubscription> chunk = List.of();
+        private int next;
+        private int rewinds;
+    }
+
+}
@@ -0,0 +1,35 @@
+package io.sapl.benchmark;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.generator.SubscriptionGenerator;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The subscriptions a case retrieves. Load generators pick the subscription of every run from a source, outside of
+ * the timed section.
+ */
+interface SubscriptionSource {
+
+    AuthorizationSubscription pick(long run, Random random);
+
+    /**
+     * Same as {@link #pick(long, Random)}, drawing with the dice of the case.
+     */
+    AuthorizationSubscription pick(long run, PolicyUtil policyUtil);
+
+    /**
+     * Starts the sequence of subscriptions over, so that every iteration of a case retrieves the same subscriptions.
+     */
+    void rewind() throws IOException;
+
+    static SubscriptionSource of(SubscriptionSourceType type, SubscriptionGenerator generator, int runs,
+                                 PolicyUtil policyUtil) throws IOException {
+        if (type == SubscriptionSourceType.STREAM)
+            return new StreamingSubscriptionSource(generator, policyUtil);
+        return new ArraySubscriptionSource(generator.generateSubscriptions(runs), generator.isOrdered(), policyUtil);
+    }
+
+}
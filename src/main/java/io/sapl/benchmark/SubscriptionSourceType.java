@@ -0,0 +1,16 @@
+package io.sapl.benchmark;
+
+public enum SubscriptionSourceType {
+
+    /**
+     * All subscriptions of a case are generated up front into an array. Every run draws one at random, or takes the
+     * next one if their order matters.
+     */
+    ARRAY,
+
+    /**
+     * Subscriptions are generated in chunks while the benchmark runs and retrieved in the order they were
+     * generated. Memory use does not depend on the number of runs.
+     */
+    STREAM
+}
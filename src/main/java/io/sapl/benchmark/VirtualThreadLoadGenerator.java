@@ -0,0 +1,123 @@
+package io.sapl.benchmark;
+
+import io.sapl.benchmark.jfr.RetrievalEvent;
+import io.sapl.benchmark.results.BenchmarkCaseResult;
+import io.sapl.benchmark.results.BenchmarkRecord;
+import io.sapl.benchmark.util.AllocationMeter;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts one virtual thread per subscription, with at most {@code inFlightLimit} retrievals running at the same
+ * time. Carrier pinning is observed through the jdk.VirtualThreadPinned JFR event, recorded without threshold for
+ * the duration of the measurement.
+ * <p>
+ * The benchmark is built for Java 11, so the virtual thread executor is looked up reflectively and this mode fails
+ * on JDKs without virtual threads. Allocations are not measured, the ThreadMXBean does not report them for virtual
+ * threads.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class VirtualThreadLoadGenerator {
+
+    private static final double BILLION = 1000000000.0D;
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final int inFlightLimit;
+
+    void runBenchmark(ImmutableParsedDocumentIndex index, SubscriptionSource subscriptions, int runs, long seed,
+                      BenchmarkCaseResult result) throws InterruptedException, IOException {
+        var random = new Random(seed);
+        var latencies = BenchmarkCaseResult.newConcurrentLatencyHistogram();
+        List<BenchmarkRecord> records = Collections.synchronizedList(new ArrayList<>());
+        var inFlight = new Semaphore(inFlightLimit);
+        var executor = newVirtualThreadPerTaskExecutor();
+
+        log.info("running {} retrievals on virtual threads, at most {} in flight", runs, inFlightLimit);
+
+        var pinningRecording = new Recording();
+        pinningRecording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        pinningRecording.start();
+
+        long begin = System.nanoTime();
+        try {
+            for (int j = 0; j < runs; j++) {
+                final int run = j;
+                var request = subscriptions.pick(run, random);
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        var retrievalEvent = RetrievalEvent.start(result.getName());
+                        long start = System.nanoTime();
+                        var retrievalResult = BenchmarkExecutor.retrieve(index, request);
+                        long timeRetrieve = System.nanoTime() - start;
+                        retrievalEvent.finish(retrievalResult);
+
+                        BenchmarkCaseResult.recordLatency(latencies, timeRetrieve);
+                        if (result.isSampled(run))
+                            records.add(BenchmarkExecutor.benchmarkRecord(run, result, timeRetrieve,
+                                    AllocationMeter.UNSUPPORTED, request, retrievalResult));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(1L, TimeUnit.HOURS);
+        } finally {
+            executor.shutdownNow();
+            pinningRecording.stop();
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / BILLION;
+
+        result.setPinningEvents(countPinningEvents(pinningRecording));
+        result.getLatencies().add(latencies);
+        // records arrive in completion order
+        records.sort(Comparator.comparingInt(BenchmarkRecord::getNumber));
+        result.getRecords().addAll(records);
+        result.setThroughput(latencies.getTotalCount() / elapsedSeconds);
+        result.getThreadRecords()
+                .add(BenchmarkExecutor.threadRecord(result.getName(), 0, result.getLatencies(), elapsedSeconds));
+
+        log.info("{} ops/s, {} carrier pinning events", result.getThroughput(), result.getPinningEvents());
+    }
+
+    private static long countPinningEvents(Recording recording) throws IOException {
+        var recordingFile = Files.createTempFile("sapl-benchmark-pinning-", ".jfr");
+        try {
+            recording.dump(recordingFile);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+            return events.stream().filter(event -> PINNED_EVENT.equals(event.getEventType().getName())).count();
+        } finally {
+            recording.close();
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on Java "
+                    + System.getProperty("java.version") + ". The VIRTUAL_THREADS mode requires Java 21 or newer.", e);
+        }
+    }
+
+}
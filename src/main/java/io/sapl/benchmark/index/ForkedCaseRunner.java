@@ -0,0 +1,163 @@
+package io.sapl.benchmark.index;
+
+import io.sapl.benchmark.BenchmarkCase;
+import io.sapl.benchmark.BenchmarkMain;
+import io.sapl.benchmark.results.CaseExecution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every case in a child JVM of its own, so that no case inherits the JIT profile or heap of another one. Up to
+ * {@code forks} children run at the same time. A child is started with the arguments of the parent, restricted to
+ * its case, and writes its {@link CaseExecution} to a file in the result directory, which the parent reads back.
+ * <p>
+ * With pinning, the available processors are split evenly between the concurrently running children and every child
+ * is bound to its share with taskset. This requires Linux.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class ForkedCaseRunner {
+
+    static final String CASE_OPTION = "--case";
+    static final String CHILD_RESULT_OPTION = "--child-result";
+    private static final String[] PARENT_OPTIONS = {"--fork", "--pin", CASE_OPTION, CHILD_RESULT_OPTION};
+
+    private final int forks;
+    private final boolean pinned;
+    private final List<String> originalArgs;
+    private final Path resultDirectory;
+
+    List<CaseExecution> runCases(List<BenchmarkCase> cases) throws InterruptedException, ExecutionException {
+        var freeSlots = new ArrayBlockingQueue<Integer>(forks);
+        for (int slot = 0; slot < forks; slot++)
+            freeSlots.add(slot);
+
+        var executor = Executors.newFixedThreadPool(forks);
+        try {
+            List<Future<List<CaseExecution>>> executions = new ArrayList<>(cases.size());
+            for (int i = 0; i < cases.size(); i++) {
+                var caseName = cases.get(i).getName();
+                var resultFile = resultDirectory.resolve(String.format("case-%03d.result", i));
+                var logFile = resultDirectory.resolve(String.format("case-%03d.log", i));
+                executions.add(executor.submit(() -> runChild(caseName, resultFile, logFile, freeSlots)));
+            }
+
+            // merged in the order of the configuration, regardless of which child finishes first
+            List<CaseExecution> results = new ArrayList<>();
+            for (Future<List<CaseExecution>> execution : executions)
+                results.addAll(execution.get());
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<CaseExecution> runChild(String caseName, Path resultFile, Path logFile, BlockingQueue<Integer> freeSlots)
+            throws IOException, InterruptedException {
+        int slot = freeSlots.take();
+        try {
+            var command = childCommand(caseName, resultFile, slot);
+            log.info("forking case {}, output is written to {}", caseName, logFile);
+            log.debug("child command: {}", command);
+
+            var process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logFile.toFile())
+                    .start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || !Files.exists(resultFile))
+                throw new IllegalStateException(
+                        "Child JVM for case " + caseName + " failed with exit code " + exitCode + ", see " + logFile);
+
+            return readResult(resultFile);
+        } finally {
+            freeSlots.add(slot);
+        }
+    }
+
+    private List<String> childCommand(String caseName, Path resultFile, int slot) {
+        List<String> command = new ArrayList<>();
+        if (pinned)
+            command.addAll(List.of("taskset", "-c", cpuList(slot)));
+
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkMain.class.getName());
+
+        command.addAll(withoutParentOptions(originalArgs));
+        command.add(CASE_OPTION + "=" + caseName);
+        command.add(CHILD_RESULT_OPTION + "=" + resultFile);
+        return command;
+    }
+
+    private String cpuList(int slot) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int cpusPerChild = Math.max(1, processors / forks);
+        int first = (slot * cpusPerChild) % processors;
+        int last = Math.min(first + cpusPerChild, processors) - 1;
+        return first + "-" + last;
+    }
+
+    private static List<String> withoutParentOptions(List<String> args) {
+        List<String> childArgs = new ArrayList<>(args.size());
+        for (int i = 0; i < args.size(); i++) {
+            var arg = args.get(i);
+            var option = parentOption(arg);
+            if (option == null) {
+                childArgs.add(arg);
+            } else if (arg.equals(option) && !"--pin".equals(option)) {
+                // the value is the next argument
+                i++;
+            }
+        }
+        return childArgs;
+    }
+
+    private static String parentOption(String arg) {
+        for (String option : PARENT_OPTIONS) {
+            if (arg.equals(option) || arg.startsWith(option + "="))
+                return option;
+        }
+        return null;
+    }
+
+    static void writeResult(List<CaseExecution> executions, Path resultFile) throws IOException {
+        try (OutputStream file = Files.newOutputStream(resultFile);
+             var out = new ObjectOutputStream(file)) {
+            out.writeObject(new ArrayList<>(executions));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CaseExecution> readResult(Path resultFile) throws IOException {
+        try (InputStream file = Files.newInputStream(resultFile);
+             var in = new ObjectInputStream(file)) {
+            var executions = (List<CaseExecution>) in.readObject();
+            // one execution per index
+            if (executions.isEmpty())
+                throw new IOException("no case result in " + resultFile);
+            return executions;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("invalid child result in " + resultFile, e);
+        } finally {
+            Files.deleteIfExists(resultFile);
+        }
+    }
+
+}
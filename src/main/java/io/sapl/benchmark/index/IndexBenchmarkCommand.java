@@ -1,37 +1,60 @@
 package io.sapl.benchmark.index;
 
+import com.google.common.base.Strings;
 import io.sapl.benchmark.BenchmarkCase;
 import io.sapl.benchmark.BenchmarkExecutor;
 import io.sapl.benchmark.BenchmarkParameters;
 import io.sapl.benchmark.BenchmarkType;
+import io.sapl.benchmark.ExecutionMode;
+import io.sapl.benchmark.IndexBuildBenchmark;
+import io.sapl.benchmark.PolicySource;
+import io.sapl.benchmark.SubscriptionSourceType;
+import io.sapl.benchmark.index.cache.CacheEviction;
+import io.sapl.benchmark.jfr.CaseFlightRecording;
+import io.sapl.benchmark.jfr.PolicyGenerationEvent;
+import io.sapl.benchmark.jmh.JmhBenchmarkRunner;
 import io.sapl.benchmark.results.BenchmarkResultContainer;
 import io.sapl.benchmark.results.BenchmarkResultWriter;
+import io.sapl.benchmark.results.CaseExecution;
+import io.sapl.benchmark.results.ParseScalingRecord;
 import io.sapl.benchmark.util.ManifestVersionProvider;
+import io.sapl.domain.model.DomainPolicy;
 import io.sapl.generator.BenchmarkConfiguration;
 import io.sapl.generator.ConfigurationFactory;
 import io.sapl.generator.GeneratorFactory;
 import io.sapl.generator.PolicyAnalyzer;
+import io.sapl.generator.PolicyCache;
+import io.sapl.generator.PolicyCharacteristics;
 import io.sapl.generator.PolicyUtil;
+import io.sapl.generator.replay.ReplayCase;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 @Slf4j
 @ToString
 @Command(name = "index", mixinStandardHelpOptions = true, versionProvider = ManifestVersionProvider.class, description = "Performs a benchmark on the PRP indexing data structures.")
 public class IndexBenchmarkCommand implements Callable<Integer> {
 
-    @Option(names = {"-i", "--index"}, description = "Type of the index used for the benchmark.")
-    private IndexType indexType = IndexType.CANONICAL;
+    @Option(names = {"-i", "--index"}, split = ",", defaultValue = "CANONICAL", description = "Comma separated names of the indexes used for the benchmark: NAIVE, CANONICAL, CACHED_NAIVE, CACHED_CANONICAL, BITSET, INVERTED, COMPILED or the name of an IndexProvider on the class path. The CACHED_ types memoize the retrieval results of the respective index per subscription, BITSET matches the targets of the fully-random cases as bitsets, INVERTED looks up the attribute comparisons of the structured cases, COMPILED checks every target like NAIVE but as compiled predicates. Several indexes are benchmarked one after the other on the same policies and subscriptions, with their results written to the same directory.")
+    private List<String> indexTypes;
 
-    @Option(names = {"-b", "--benchmark"}, description = "Type of the benchmark.")
+    @Option(names = {"-b", "--benchmark"}, description = "Type of the benchmark. STRUCTURED_RANDOM and FULLY_RANDOM generate policies and subscriptions, REPLAY benchmarks a policy folder supplied by the user against subscriptions sampled from a JSON lines file of captured traffic.")
     private BenchmarkType benchmarkType = BenchmarkType.STRUCTURED_RANDOM;
 
     @Option(names = {"-o", "--output"}, description = "Path to the output directory for benchmark results.")
@@ -46,12 +69,87 @@ public class IndexBenchmarkCommand implements Callable<Integer> {
     @Option(names = {"-r", "--runs"}, description = "The number of repetitions executed for every case defined in the benchmark.")
     private int numberOfRunsPerCase = 1;
 
-    @Option(names = {"-c", "--circles"}, description = "The benchmark will be repeated up to the number specified in this parameter.")
+    @Option(names = {"-s", "--sample"}, description = "Keep a detailed record (request, matching policies) of every n-th run. Latencies of all runs are recorded in a histogram regardless. By default (0) no detailed records are kept, so memory does not grow with --runs. Set e.g. --sample=1000 to get the records and the per-run detail charts.")
+    private int sampleInterval = 0;
+
+    @Option(names = {"-c", "--circles"}, description = "Number of iterations per case. Every iteration builds a fresh index, warms it up and performs the configured number of runs. Mean, standard deviation and 95% confidence interval of the iteration medians are reported.")
     private int numberOfBenchmarkIterations = 1;
 
+    @Option(names = {"--source"}, description = "Where generated policies are loaded from. FILESYSTEM writes them to a temporary directory and reads them back like a PDP would, MEMORY parses the generated policies directly and shares the parsed documents between analysis and index construction.")
+    private PolicySource policySource = PolicySource.FILESYSTEM;
+
+    @Option(names = {"--subscriptions"}, description = "How subscriptions are supplied to the retrievals. ARRAY generates the configured number of runs up front and draws from them, STREAM generates them in chunks while the benchmark runs, with constant memory regardless of the number of runs.")
+    private SubscriptionSourceType subscriptionSource = SubscriptionSourceType.ARRAY;
+
+    @Option(names = {"--parse-threads"}, description = "Number of threads parsing the policies of a case on a fork-join pool. 1 reads them through the filesystem update source like a PDP does.")
+    private int parseThreads = 1;
+
+    @Option(names = {"--parse-scaling"}, description = "In BUILD mode, additionally measure the parse throughput for 1, 2, 4, ... threads up to the number of available processors, all on the fork-join parser. Every point is repeated at least 5 times, or --circles times, and the median is reported.")
+    private boolean parseScaling = false;
+
+    @Option(names = {"--policy-cache"}, description = "Directory of the policy cache. Generated policy sets are stored there, keyed by a hash of the case configuration and seed, and loaded instead of being generated again on later runs. Policies are still parsed on every run.")
+    private String policyCacheDirectory = "";
+
     @Option(names = {"-d", "--delete"}, description = "Perform a clean benchmark where all policies are deleted after the results were produced.")
     private boolean deletePoliciesAfterBenchmark = false;
 
+    @Option(names = {"-m", "--mode"}, description = "Execution mode of the benchmark. SEQUENTIAL times every retrieval in a single loop, CONCURRENT shares the index between multiple threads, OPEN_LOOP issues requests at a constant rate, REACTIVE runs the retrievals as a Flux on a parallel scheduler, VIRTUAL_THREADS uses one virtual thread per retrieval (Java 21+), JMH runs the cases through the JMH harness with forks, warm-up iterations and blackholes, BUILD measures parsing, index construction and the retained heap instead of retrievals, UPDATE applies small update events to the index while a reader thread keeps retrieving.")
+    private ExecutionMode executionMode = ExecutionMode.SEQUENTIAL;
+
+    @Option(names = {"-t", "--threads"}, description = "Number of threads sharing the index in CONCURRENT mode, size of the scheduler in REACTIVE mode. Every thread performs the configured number of runs.")
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+    @Option(names = {"--ramp-up"}, description = "Ramp-up period in milliseconds in CONCURRENT mode. The threads are started evenly distributed over this period.")
+    private long rampUpMillis = 0L;
+
+    @Option(names = {"--rate"}, description = "Target arrival rate in requests per second in OPEN_LOOP mode. Latencies are measured from the intended start of each request.")
+    private double requestsPerSecond = 1000.0D;
+
+    @Option(names = {"--concurrency"}, description = "Maximum number of retrievals in flight in REACTIVE mode (flatMap concurrency) and VIRTUAL_THREADS mode.")
+    private int concurrency = 16;
+
+    @Option(names = {"--jmh-forks"}, description = "Number of JVM forks per case in JMH mode.")
+    private int jmhForks = 1;
+
+    @Option(names = {"--jmh-warmups"}, description = "Number of warm-up iterations per fork in JMH mode.")
+    private int jmhWarmupIterations = 5;
+
+    @Option(names = {"--jmh-iterations"}, description = "Number of measurement iterations per fork in JMH mode.")
+    private int jmhMeasurementIterations = 5;
+
+    @Option(names = {"--update-deltas"}, split = ",", defaultValue = "1,10,100", description = "Comma separated numbers of documents per update event in UPDATE mode.")
+    private List<Integer> updateDeltaSizes;
+
+    @Option(names = {"--updates"}, description = "Number of unpublish/publish event pairs applied per delta size in UPDATE mode.")
+    private int updatesPerDeltaSize = 100;
+
+    @Option(names = {"--cache-eviction"}, description = "Eviction policy of the retrieval cache of the CACHED_ index types: LRU, LFU or W_TINY_LFU.")
+    private CacheEviction cacheEviction = CacheEviction.W_TINY_LFU;
+
+    @Option(names = {"--cache-size"}, description = "Maximum number of cached retrieval results of the CACHED_ index types. 0 disables caching, as a control run.")
+    private int cacheSize = 10000;
+
+    @Option(names = {"--flattening"}, description = "Additionally measure per case how long flattening a subscription into the attribute slots of the COMPILED index takes, compared to the time the compiled targets spend walking attribute paths without it. Runs once per case, for the first index only.")
+    private boolean flatteningAnalysis = false;
+
+    @Option(names = {"--jfr"}, description = "Record every case with Java Flight Recorder. Policy generation, index construction, warm-up and every retrieval are emitted as custom events. One .jfr file per case is written to the result directory.")
+    private boolean flightRecording = false;
+
+    @Option(names = {"--fork"}, description = "Run every case in a child JVM of its own, with the given number of children running at the same time. 0 runs all cases in this JVM.")
+    private int forks = 0;
+
+    @Option(names = {"--pin"}, description = "Pin the forked children to disjoint sets of CPUs with taskset, splitting the available processors evenly between the concurrently running children. Linux only.")
+    private boolean pinForks = false;
+
+    @Option(names = {"--case"}, description = "Only run the case with this name. May be repeated.")
+    private List<String> caseNames;
+
+    @Option(names = {ForkedCaseRunner.CHILD_RESULT_OPTION}, hidden = true, description = "Set by a parent benchmark for its forked children. The results are written to this file instead of the result directory.")
+    private String childResultFile = "";
+
+    @Spec
+    private CommandSpec spec;
+
 
     @Override
     public Integer call() throws Exception {
@@ -63,61 +161,282 @@ public class IndexBenchmarkCommand implements Callable<Integer> {
 
         var parameters = BenchmarkParameters.builder()
                 //                .seed(0L)
-                .indexType(indexType)
+                .indexType(indexTypes.get(0))
                 .benchmarkType(benchmarkType)
+                .executionMode(executionMode)
                 .runsPerCase(numberOfRunsPerCase)
+                .sampleInterval(sampleInterval)
                 .benchmarkIterations(numberOfBenchmarkIterations)
                 .outputPath(outputPath)
                 .filePrefix(filePrefix)
                 .configurationFile(benchmarkConfigurationFile)
                 .deletePoliciesAfterBenchmark(deletePoliciesAfterBenchmark)
+                .policySource(policySource)
+                .subscriptionSource(subscriptionSource)
+                .parseThreads(parseThreads)
+                .parseScaling(parseScaling)
+                .policyCacheDirectory(policyCacheDirectory)
+                .numberOfThreads(numberOfThreads)
+                .rampUpMillis(rampUpMillis)
+                .requestsPerSecond(requestsPerSecond)
+                .concurrency(concurrency)
+                .jmhForks(jmhForks)
+                .jmhWarmupIterations(jmhWarmupIterations)
+                .jmhMeasurementIterations(jmhMeasurementIterations)
+                .flightRecording(flightRecording)
+                .updateDeltaSizes(updateDeltaSizes)
+                .updatesPerDeltaSize(updatesPerDeltaSize)
+                .cacheEviction(cacheEviction)
+                .cacheSize(cacheSize)
+                .flatteningAnalysis(flatteningAnalysis)
                 .build();
         log.info("Benchmark parameters: {}", parameters);
 
+        if (cacheSize < 0)
+            throw new IllegalArgumentException("The cache size must not be negative, was " + cacheSize);
+        if (requestsPerSecond <= 0D)
+            throw new IllegalArgumentException("The rate must be positive, was " + requestsPerSecond);
+        for (String index : indexTypes) {
+            if (!IndexFactory.isAvailable(index))
+                throw new IllegalArgumentException("Unknown index " + index + ", available indexes: "
+                        + IndexFactory.availableIndexNames());
+        }
+        if (indexTypes.size() > 1 && Strings.isNullOrEmpty(parameters.getFilePrefix()))
+            parameters.setFilePrefix(BenchmarkResultWriter.generateFilePrefix(String.join("-", indexTypes), null));
+
         BenchmarkConfiguration<BenchmarkCase> configuration = ConfigurationFactory.parseConfigurationFile(parameters);
 
-        var resultWriter = new BenchmarkResultWriter(parameters);
-        var resultContainer = new BenchmarkResultContainer(parameters);
+        if (parameters.getExecutionMode() == ExecutionMode.JMH) {
+            JmhBenchmarkRunner.runBenchmark(parameters, configuration, indexTypes);
+            return 0;
+        }
+
+        var cases = selectedCases(configuration.getCases());
+        var policyCache = Strings.isNullOrEmpty(parameters.getPolicyCacheDirectory()) ? null
+                : new PolicyCache(Path.of(parameters.getPolicyCacheDirectory()));
+
+        if (!Strings.isNullOrEmpty(childResultFile)) {
+            // forked by a parent benchmark, which writes the results
+            var resultFile = Path.of(childResultFile);
+            List<CaseExecution> executions = new ArrayList<>();
+            for (BenchmarkCase benchmarkCase : cases)
+                executions.addAll(runCase(parameters, benchmarkCase, resultFile.getParent().toString(), policyCache));
+            ForkedCaseRunner.writeResult(executions, resultFile);
+            return 0;
+        }
+
+        // one writer and container per index, all writing to the same directory
+        Map<String, BenchmarkResultWriter> resultWriters = new LinkedHashMap<>();
+        Map<String, BenchmarkResultContainer> resultContainers = new LinkedHashMap<>();
+        for (String index : indexTypes) {
+            var indexParameters = parameters.toBuilder().indexType(index).build();
+            resultWriters.put(index, new BenchmarkResultWriter(indexParameters));
+            resultContainers.put(index, new BenchmarkResultContainer(indexParameters));
+        }
+        var resultPath = resultWriters.values().iterator().next().getResultPath();
+
+        Map<String, BenchmarkCase> casesByName = new HashMap<>();
+        cases.forEach(benchmarkCase -> casesByName.put(benchmarkCase.getName(), benchmarkCase));
+
+        if (forks > 0) {
+            var originalArgs = spec.commandLine().getParseResult().originalArgs();
+            var runner = new ForkedCaseRunner(forks, pinnedForks(), originalArgs, Path.of(resultPath));
+            for (CaseExecution execution : runner.runCases(cases))
+                mergeCase(execution, casesByName.get(execution.getCaseName()),
+                        resultWriters.get(execution.getIndexType()), resultContainers.get(execution.getIndexType()));
+        } else {
+            for (BenchmarkCase benchmarkCase : cases) {
+                for (CaseExecution execution : runCase(parameters, benchmarkCase, resultPath, policyCache))
+                    mergeCase(execution, benchmarkCase, resultWriters.get(execution.getIndexType()),
+                            resultContainers.get(execution.getIndexType()));
+            }
+        }
+
+        log.info("Benchmark completed. Writing final results...");
+        for (String index : indexTypes) {
+            if (parameters.getExecutionMode() == ExecutionMode.BUILD)
+                resultWriters.get(index).writeBuildResults(resultContainers.get(index));
+            else
+                resultWriters.get(index).writeFinalResults(resultContainers.get(index));
+        }
+        if (indexTypes.size() > 1 && parameters.getExecutionMode() != ExecutionMode.BUILD)
+            BenchmarkResultWriter.writeIndexComparison(resultPath, resultContainers);
+
+
+        return 0;
+    }
+
+    private List<BenchmarkCase> selectedCases(List<BenchmarkCase> cases) {
+        if (caseNames == null || caseNames.isEmpty())
+            return cases;
+
+        var selectedCases = cases.stream().filter(benchmarkCase -> caseNames.contains(benchmarkCase.getName()))
+                .collect(Collectors.toList());
+        if (selectedCases.size() != caseNames.size())
+            throw new IllegalStateException("Unknown case in " + caseNames + ", the configuration defines "
+                    + cases.stream().map(BenchmarkCase::getName).collect(Collectors.toList()));
+        return selectedCases;
+    }
+
+    private boolean pinnedForks() {
+        if (pinForks && !System.getProperty("os.name").toLowerCase().contains("linux")) {
+            log.warn("pinning forked cases to CPUs requires taskset and is only supported on Linux, running unpinned");
+            return false;
+        }
+        return pinForks;
+    }
 
-        for (BenchmarkCase benchmarkCase : configuration.getCases()) {
-            log.info("######################################################");
-            log.info("      EXECUTING CASE: {}      ", benchmarkCase.getName());
-            log.info("######################################################");
+    /**
+     * Generates the policies of the case once and benchmarks every index on them. Each index starts from the same
+     * state of the dice, so that all of them retrieve the same subscriptions.
+     */
+    private List<CaseExecution> runCase(BenchmarkParameters parameters, BenchmarkCase benchmarkCase,
+                                        String resultPath, PolicyCache policyCache) throws Exception {
+        log.info("######################################################");
+        log.info("      EXECUTING CASE: {}      ", benchmarkCase.getName());
+        log.info("######################################################");
+
+        var flightRecording = parameters.isFlightRecording()
+                ? CaseFlightRecording.start(benchmarkCase.getName(), resultPath) : null;
+
+        var policyUtil = new PolicyUtil(parameters.isDeletePoliciesAfterBenchmark(), benchmarkCase.getSeed());
+
+        Path tempDirectory = null;
+        if (parameters.getBenchmarkType() == BenchmarkType.REPLAY)
+            useReplayPolicies((ReplayCase) benchmarkCase, parameters);
+        else
+            tempDirectory = generatePolicies(parameters, benchmarkCase, policyUtil, policyCache);
+
+        log.info("Analyzing policies...");
+        var characteristics = benchmarkCase.getInitialUpdateEvent() != null
+                ? new PolicyAnalyzer(benchmarkCase.getInitialUpdateEvent()).analyzeSaplDocuments()
+                : analyzeFolder(benchmarkCase.getPolicyFolderPath());
+
+        var diceState = policyUtil.diceState();
+        try {
+            List<CaseExecution> executions = new ArrayList<>(indexTypes.size());
+            for (String index : indexTypes) {
+                var indexParameters = parameters.toBuilder().indexType(index).build();
+                policyUtil.restoreDice(diceState);
+                executions.add(runIndex(indexParameters, benchmarkCase, characteristics, policyUtil,
+                        executions.isEmpty()));
+            }
+            return executions;
+        } finally {
+            if (flightRecording != null)
+                flightRecording.close();
+            cleanUpCase(benchmarkCase, tempDirectory, parameters);
+        }
+    }
 
-            var tempDirectory = prepareTempDirectory();
+    private CaseExecution runIndex(BenchmarkParameters parameters, BenchmarkCase benchmarkCase,
+                                   PolicyCharacteristics characteristics, PolicyUtil policyUtil, boolean firstIndex) {
+        if (parameters.getExecutionMode() == ExecutionMode.BUILD) {
+            log.info("Running build benchmark on index {}...", parameters.getIndexType());
+            var buildBenchmark = new IndexBuildBenchmark();
+            var buildRecords = buildBenchmark.runBenchmark(parameters, benchmarkCase);
+            // parsing does not depend on the index
+            var parseScalingRecords = parameters.isParseScaling() && firstIndex
+                    ? buildBenchmark.measureParseScaling(parameters, benchmarkCase) : List.<ParseScalingRecord>of();
+            return new CaseExecution(benchmarkCase.getName(), parameters.getIndexType(), characteristics, null,
+                    buildRecords, parseScalingRecords);
+        }
 
-            var policyUtil = new PolicyUtil(parameters.isDeletePoliciesAfterBenchmark(), benchmarkCase.getSeed());
+        log.info("Running benchmark on index {}...", parameters.getIndexType());
+        var executor = new BenchmarkExecutor(policyUtil);
+        // the flattening analysis does not depend on the index
+        var caseResult = executor.runBenchmark(parameters.toBuilder()
+                .flatteningAnalysis(parameters.isFlatteningAnalysis() && firstIndex).build(), benchmarkCase);
+        return new CaseExecution(benchmarkCase.getName(), parameters.getIndexType(), characteristics, caseResult,
+                List.of(), List.of());
+    }
 
-            log.info("Generating policies...");
-            var generator = GeneratorFactory.policyGeneratorByType(parameters, benchmarkCase, policyUtil);
-            generator.generatePolicies(tempDirectory);
+    /**
+     * Generates the policies of the case, into a temporary directory unless they are kept in memory.
+     *
+     * @return the temporary directory, or null
+     */
+    private Path generatePolicies(BenchmarkParameters parameters, BenchmarkCase benchmarkCase, PolicyUtil policyUtil,
+                                  PolicyCache policyCache) throws Exception {
+        log.info("Generating policies...");
+        var generator = GeneratorFactory.policyGeneratorByType(parameters, benchmarkCase, policyUtil);
+        var generationEvent = new PolicyGenerationEvent(benchmarkCase.getName(), benchmarkType.name());
+        generationEvent.begin();
+        List<DomainPolicy> policies = null;
+        if (policyCache != null)
+            policies = policyCache.policiesFor(benchmarkType, benchmarkCase, generator, policyUtil);
+        else if (parameters.getPolicySource() == PolicySource.MEMORY)
+            policies = generator.generatePolicies();
+
+        Path tempDirectory = null;
+        if (parameters.getPolicySource() == PolicySource.MEMORY) {
+            benchmarkCase.setGeneratedPolicies(policies);
+            benchmarkCase.setInitialUpdateEvent(IndexFactory.parseUpdateEvent(policies, parseThreads));
+        } else {
+            tempDirectory = prepareTempDirectory();
+            if (policies != null)
+                policyUtil.writeDomainPoliciesToFilesystem(policies, tempDirectory.toString());
+            else
+                generator.generatePolicies(tempDirectory);
             benchmarkCase.setPolicyFolderPath(tempDirectory);
+        }
+        generationEvent.commit();
+        return tempDirectory;
+    }
+
+    private void useReplayPolicies(ReplayCase replayCase, BenchmarkParameters parameters) {
+        var policyFolder = Path.of(replayCase.getPolicyFolder());
+        if (!Files.isDirectory(policyFolder))
+            throw new IllegalStateException("Policy folder of case " + replayCase.getName() + " not found: "
+                    + policyFolder.toAbsolutePath());
+
+        // the folder belongs to the user, it is read but never written to or deleted
+        log.info("Using the policies in {}", policyFolder.toAbsolutePath());
+        replayCase.setPolicyFolderPath(policyFolder);
+        if (parameters.getPolicySource() == PolicySource.MEMORY)
+            replayCase.setInitialUpdateEvent(IndexFactory.fetchInitialUpdateEvent(policyFolder.toString(),
+                    parseThreads));
+    }
 
-            log.info("Analyzing policies...");
-            var characteristics = new PolicyAnalyzer(benchmarkCase.getPolicyFolderPath()).analyzeSaplDocuments();
+    private void mergeCase(CaseExecution execution, BenchmarkCase benchmarkCase, BenchmarkResultWriter resultWriter,
+                           BenchmarkResultContainer resultContainer) {
+        resultContainer.getBuildData().addAll(execution.getBuildRecords());
+        resultContainer.getParseScalingData().addAll(execution.getParseScalingRecords());
 
-            log.info("Running benchmark...");
-            var executor = new BenchmarkExecutor(policyUtil);
-            var results = executor.runBenchmark(parameters, benchmarkCase);
-            resultWriter.addResultsForCaseToContainer(resultContainer, benchmarkCase, results, characteristics);
+        var caseResult = execution.getCaseResult();
+        if (caseResult == null)
+            return;
 
+        resultWriter.addResultsForCaseToContainer(resultContainer, benchmarkCase, caseResult,
+                execution.getCharacteristics());
 
-            log.info("Writing results...");
+        log.info("Writing results...");
+        resultWriter.writeLatencyDistribution(caseResult);
+        var results = caseResult.getRecords();
+        if (!results.isEmpty()) {
             double[] times = new double[results.size()];
-            resultWriter.writeDetailsChart(results, times, benchmarkCase.getName());
+            resultWriter.writeDetailsChart(results, times, benchmarkCase.getName(), caseResult);
             resultWriter.addSeriesToOverviewChart(times, benchmarkCase.getName());
-
-            if (parameters.isDeletePoliciesAfterBenchmark()) {
-                log.info("Deleting generated policies...");
-                deleteTempDirectory(tempDirectory);
-            }
         }
+    }
 
-        log.info("Benchmark completed. Writing final results...");
-        resultWriter.writeFinalResults(resultContainer);
+    private PolicyCharacteristics analyzeFolder(Path policyFolder) {
+        if (parseThreads <= 1)
+            return new PolicyAnalyzer(policyFolder).analyzeSaplDocuments();
+        return new PolicyAnalyzer(IndexFactory.fetchInitialUpdateEvent(policyFolder.toString(), parseThreads))
+                .analyzeSaplDocuments();
+    }
 
+    private void cleanUpCase(BenchmarkCase benchmarkCase, Path tempDirectory, BenchmarkParameters parameters)
+            throws IOException {
+        // the in-memory policies of large cases would otherwise stay reachable until the end of the benchmark
+        benchmarkCase.setGeneratedPolicies(null);
+        benchmarkCase.setInitialUpdateEvent(null);
 
-        return 0;
+        if (tempDirectory != null && parameters.isDeletePoliciesAfterBenchmark()) {
+            log.info("Deleting generated policies...");
+            deleteTempDirectory(tempDirectory);
+        }
     }
 
     private Path prepareTempDirectory() throws IOException {
@@ -1,10 +1,21 @@
 package io.sapl.benchmark.index;
 
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.benchmark.BenchmarkCase;
+import io.sapl.benchmark.BenchmarkParameters;
+import io.sapl.benchmark.index.bitset.BitsetImmutableParsedDocumentIndex;
+import io.sapl.benchmark.index.cache.CacheEviction;
+import io.sapl.benchmark.index.compiled.CompiledImmutableParsedDocumentIndex;
+import io.sapl.benchmark.index.cache.CachingImmutableParsedDocumentIndex;
+import io.sapl.benchmark.index.inverted.InvertedImmutableParsedDocumentIndex;
+import io.sapl.domain.model.DomainPolicy;
 import io.sapl.interpreter.DefaultSAPLInterpreter;
 import io.sapl.interpreter.EvaluationContext;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
 import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
 import io.sapl.prp.filesystem.FileSystemPrpUpdateEventSource;
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
@@ -12,7 +23,19 @@ import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
 
 @Slf4j
 @UtilityClass
@@ -21,28 +44,179 @@ public class IndexFactory {
     private static final EvaluationContext PDP_SCOPED_EVALUATION_CONTEXT =
             new EvaluationContext(new AnnotationAttributeContext(), new AnnotationFunctionContext(), new HashMap<>());
 
+    private static final CacheEviction DEFAULT_CACHE_EVICTION = CacheEviction.W_TINY_LFU;
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private Map<String, IndexProvider> indexProviders;
+
 
     public ImmutableParsedDocumentIndex indexByTypeForDocumentsIn(IndexType indexType, String policiesFolder) {
+        return indexByTypeForUpdateEvent(indexType, fetchInitialUpdateEvent(policiesFolder));
+    }
+
+    public ImmutableParsedDocumentIndex indexByTypeForUpdateEvent(IndexType indexType, PrpUpdateEvent updateEvent) {
+        return emptyIndexByType(indexType).apply(updateEvent);
+    }
+
+    public ImmutableParsedDocumentIndex emptyIndexByType(IndexType indexType) {
+        return emptyIndexByType(indexType, DEFAULT_CACHE_EVICTION, DEFAULT_CACHE_SIZE);
+    }
+
+    public ImmutableParsedDocumentIndex indexForDocumentsIn(BenchmarkParameters parameters, String policiesFolder) {
+        return indexForUpdateEvent(parameters, fetchInitialUpdateEvent(policiesFolder));
+    }
+
+    /**
+     * @return an index of the configured type for the documents of the event, cached types use the configured
+     * retrieval cache
+     */
+    public ImmutableParsedDocumentIndex indexForUpdateEvent(BenchmarkParameters parameters,
+                                                            PrpUpdateEvent updateEvent) {
+        return emptyIndex(parameters).apply(updateEvent);
+    }
+
+    /**
+     * @return an empty index of the configured type, built-in or from an {@link IndexProvider}
+     */
+    public ImmutableParsedDocumentIndex emptyIndex(BenchmarkParameters parameters) {
+        var builtInType = builtInIndexType(parameters.getIndexType());
+        if (builtInType.isPresent()) {
+            var eviction = parameters.getCacheEviction() == null
+                    ? DEFAULT_CACHE_EVICTION : parameters.getCacheEviction();
+            return emptyIndexByType(builtInType.get(), eviction, parameters.getCacheSize());
+        }
+
+        var provider = indexProviders().get(parameters.getIndexType().toUpperCase(Locale.ROOT));
+        if (provider == null)
+            throw new IllegalArgumentException("Unknown index " + parameters.getIndexType() + ", available indexes: "
+                    + availableIndexNames());
+        return provider.createEmptyIndex(parameters);
+    }
+
+    public boolean isAvailable(String indexName) {
+        return builtInIndexType(indexName).isPresent()
+                || indexProviders().containsKey(indexName.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the names of the built-in index types, followed by the names of all providers on the class path
+     */
+    public List<String> availableIndexNames() {
+        List<String> names = Arrays.stream(IndexType.values()).map(IndexType::name).collect(Collectors.toList());
+        indexProviders().values().forEach(provider -> names.add(provider.getName()));
+        return names;
+    }
+
+    private Optional<IndexType> builtInIndexType(String indexName) {
+        return Arrays.stream(IndexType.values()).filter(type -> type.name().equalsIgnoreCase(indexName)).findFirst();
+    }
+
+    /**
+     * Providers by upper case name, loaded once.
+     */
+    private synchronized Map<String, IndexProvider> indexProviders() {
+        if (indexProviders == null) {
+            indexProviders = new LinkedHashMap<>();
+            for (IndexProvider provider : ServiceLoader.load(IndexProvider.class)) {
+                var name = provider.getName().toUpperCase(Locale.ROOT);
+                if (builtInIndexType(name).isPresent() || indexProviders.containsKey(name))
+                    log.warn("ignoring index provider {}, the name {} is already taken",
+                            provider.getClass().getName(), provider.getName());
+                else
+                    indexProviders.put(name, provider);
+            }
+            log.debug("found index providers {}", indexProviders.keySet());
+        }
+        return indexProviders;
+    }
+
+    private ImmutableParsedDocumentIndex emptyIndexByType(IndexType indexType, CacheEviction cacheEviction,
+                                                          int cacheSize) {
         switch (indexType) {
             case NAIVE:
-                return naiveIndexForDocumentsIn(policiesFolder);
+                return new NaiveImmutableParsedDocumentIndex();
+            case CACHED_NAIVE:
+                return new CachingImmutableParsedDocumentIndex(new NaiveImmutableParsedDocumentIndex(), cacheEviction,
+                        cacheSize);
+            case CACHED_CANONICAL:
+                return new CachingImmutableParsedDocumentIndex(
+                        new CanonicalImmutableParsedDocumentIndex(PDP_SCOPED_EVALUATION_CONTEXT), cacheEviction,
+                        cacheSize);
+            case BITSET:
+                return new BitsetImmutableParsedDocumentIndex(PDP_SCOPED_EVALUATION_CONTEXT);
+            case INVERTED:
+                return new InvertedImmutableParsedDocumentIndex(PDP_SCOPED_EVALUATION_CONTEXT);
+            case COMPILED:
+                return new CompiledImmutableParsedDocumentIndex(PDP_SCOPED_EVALUATION_CONTEXT);
             case CANONICAL:
                 //fall through
             default:
-                return canonicalIndexForDocumentsIn(policiesFolder);
+                return new CanonicalImmutableParsedDocumentIndex(PDP_SCOPED_EVALUATION_CONTEXT);
         }
     }
 
     public ImmutableParsedDocumentIndex naiveIndexForDocumentsIn(String policiesFolder) {
-        return new NaiveImmutableParsedDocumentIndex().apply(fetchInitialUpdateEvent(policiesFolder));
+        return indexByTypeForDocumentsIn(IndexType.NAIVE, policiesFolder);
     }
 
     public ImmutableParsedDocumentIndex canonicalIndexForDocumentsIn(String policiesFolder) {
-        return new CanonicalImmutableParsedDocumentIndex(PDP_SCOPED_EVALUATION_CONTEXT)
-                .apply(fetchInitialUpdateEvent(policiesFolder));
+        return indexByTypeForDocumentsIn(IndexType.CANONICAL, policiesFolder);
+    }
+
+    /**
+     * @return the parsed documents of the in-memory source, or the documents read from the policy folder of the case
+     */
+    public PrpUpdateEvent initialUpdateEventFor(BenchmarkCase benchmarkCase, int parseThreads) {
+        if (benchmarkCase.getInitialUpdateEvent() != null)
+            return benchmarkCase.getInitialUpdateEvent();
+        return fetchInitialUpdateEvent(benchmarkCase.getPolicyFolderPath().toString(), parseThreads);
+    }
+
+    /**
+     * Parses generated policies with the sequential interpreter for a single thread, on a fork-join pool otherwise.
+     */
+    public PrpUpdateEvent parseUpdateEvent(List<DomainPolicy> policies, int parseThreads) {
+        if (parseThreads <= 1)
+            return parseUpdateEvent(policies);
+        return new ParallelPolicyParser(parseThreads)
+                .parseTexts(policies.stream().map(DomainPolicy::getPolicyContent).collect(Collectors.toList()));
+    }
+
+    /**
+     * Parses generated policies directly into an update event publishing all of them. Documents that cannot be
+     * parsed are skipped, like the filesystem source does.
+     */
+    public PrpUpdateEvent parseUpdateEvent(List<DomainPolicy> policies) {
+        var interpreter = new DefaultSAPLInterpreter();
+        List<Update> updates = new ArrayList<>(policies.size());
+        for (DomainPolicy policy : policies) {
+            try {
+                var document = interpreter.parse(policy.getPolicyContent());
+                updates.add(new Update(Type.PUBLISH, document, policy.getPolicyContent()));
+            } catch (PolicyEvaluationException e) {
+                log.error("Error while parsing policy {}", policy.getPolicyName(), e);
+            }
+        }
+        return new PrpUpdateEvent(updates);
+    }
+
+    /**
+     * Reads the documents like a PDP would for a single thread, on a fork-join pool otherwise.
+     */
+    public PrpUpdateEvent fetchInitialUpdateEvent(String policiesFolder, int parseThreads) {
+        if (parseThreads <= 1)
+            return fetchInitialUpdateEvent(policiesFolder);
+        try {
+            return new ParallelPolicyParser(parseThreads).parseFolder(Path.of(policiesFolder));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private PrpUpdateEvent fetchInitialUpdateEvent(String policiesFolder) {
+    /**
+     * Reads and parses all documents in the folder into a single update event publishing all of them.
+     */
+    public PrpUpdateEvent fetchInitialUpdateEvent(String policiesFolder) {
         return new FileSystemPrpUpdateEventSource(policiesFolder, new DefaultSAPLInterpreter()).getUpdates()
                 .doOnNext(update -> log.debug("Initialize index with update event: {}", update)).blockFirst();
     }
@@ -0,0 +1,27 @@
+package io.sapl.benchmark.index;
+
+import io.sapl.benchmark.BenchmarkParameters;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+
+/**
+ * Service provider interface for index engines that are not part of the benchmark. Providers are discovered with
+ * {@link java.util.ServiceLoader}: put the implementation on the class path and list its class name in
+ * {@code META-INF/services/io.sapl.benchmark.index.IndexProvider}. The index is then selected by its name with
+ * {@code --index}, like the built-in {@link IndexType}s, which take precedence over providers of the same name.
+ */
+public interface IndexProvider {
+
+    /**
+     * @return the name selecting this index, compared ignoring case
+     */
+    String getName();
+
+    /**
+     * Creates an empty index. Documents are added by applying update events to it, so the returned index is shared
+     * by all retrievals and updates of a benchmark iteration.
+     *
+     * @param parameters parameters of the benchmark, e.g. for provider specific settings
+     */
+    ImmutableParsedDocumentIndex createEmptyIndex(BenchmarkParameters parameters);
+
+}
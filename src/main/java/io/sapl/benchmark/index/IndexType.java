@@ -1,5 +1,5 @@
 package io.sapl.benchmark.index;
 
 public enum IndexType {
-	NAIVE, CANONICAL
+	NAIVE, CANONICAL, CACHED_NAIVE, CACHED_CANONICAL, BITSET, INVERTED, COMPILED
 }
@@ -0,0 +1,121 @@
+package io.sapl.benchmark.index;
+
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.SAPLInterpreter;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * Parses documents on a fork-join pool of the given parallelism. Every worker uses its own interpreter, as the
+ * Xtext resource handling behind {@link DefaultSAPLInterpreter} is not meant to be shared between threads. Parsed
+ * documents are written to the slot of their source and collected in source order, so the resulting event does not
+ * depend on the scheduling. Files are ordered by name.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ParallelPolicyParser {
+
+    private static final String POLICY_FILE_GLOB_PATTERN = "*.sapl";
+
+    /**
+     * Number of documents below which a task parses its range itself instead of splitting it further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private static final ThreadLocal<SAPLInterpreter> INTERPRETER = ThreadLocal.withInitial(DefaultSAPLInterpreter::new);
+
+    private final int parallelism;
+
+    public PrpUpdateEvent parseFolder(Path policyFolder) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(policyFolder, POLICY_FILE_GLOB_PATTERN)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Path::compareTo);
+
+        try {
+            return parse(files.size(), i -> readString(files.get(i)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public PrpUpdateEvent parseTexts(List<String> policies) {
+        return parse(policies.size(), policies::get);
+    }
+
+    private PrpUpdateEvent parse(int numberOfDocuments, IntFunction<String> source) {
+        var updates = new Update[numberOfDocuments];
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ParseTask(source, updates, 0, numberOfDocuments));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Update> parsed = new ArrayList<>(numberOfDocuments);
+        for (Update update : updates) {
+            if (update != null)
+                parsed.add(update);
+        }
+        log.debug("parsed {} of {} documents on {} threads", parsed.size(), numberOfDocuments, parallelism);
+        return new PrpUpdateEvent(parsed);
+    }
+
+    private static String readString(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class ParseTask extends RecursiveAction {
+
+        private final transient IntFunction<String> source;
+        private final Update[] updates;
+        private final int from;
+        private final int to;
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                var interpreter = INTERPRETER.get();
+                for (int i = from; i < to; i++)
+                    updates[i] = parseDocument(interpreter, source.apply(i));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseTask(source, updates, from, middle), new ParseTask(source, updates, middle, to));
+        }
+
+        private static Update parseDocument(SAPLInterpreter interpreter, String rawText) {
+            try {
+                SAPL document = interpreter.parse(rawText);
+                return new Update(Type.PUBLISH, document, rawText);
+            } catch (PolicyEvaluationException e) {
+                log.error("Error while parsing policy", e);
+                return null;
+            }
+        }
+    }
+
+}
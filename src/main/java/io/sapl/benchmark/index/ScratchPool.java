@@ -0,0 +1,41 @@
+package io.sapl.benchmark.index;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of scratch space reused by the retrievals of an index. Unlike a thread local, it does not allocate
+ * for every new thread, which matters when each retrieval runs on a fresh virtual thread. A retrieval takes an
+ * instance, or creates one if the pool is empty, and hands it back afterwards. Instances beyond the capacity are
+ * dropped, so the pool holds at most as many as retrievals ran at the same time, up to the capacity.
+ */
+public final class ScratchPool<T> {
+
+    // retrievals are CPU bound, more of them than processors rarely run at the same time
+    private static final int DEFAULT_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final ArrayBlockingQueue<T> instances;
+    private final Supplier<T> factory;
+
+    public ScratchPool(Supplier<T> factory) {
+        this(DEFAULT_CAPACITY, factory);
+    }
+
+    public ScratchPool(int capacity, Supplier<T> factory) {
+        this.instances = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+
+    public T take() {
+        var instance = instances.poll();
+        return instance != null ? instance : factory.get();
+    }
+
+    /**
+     * @param instance the instance taken before, reset by the caller
+     */
+    public void release(T instance) {
+        instances.offer(instance);
+    }
+
+}
@@ -0,0 +1,189 @@
+package io.sapl.benchmark.index.bitset;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.benchmark.index.ScratchPool;
+import io.sapl.grammar.sapl.AuthorizationDecisionEvaluable;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index for the fully-random cases, whose targets are boolean formulas over {@code resource.xn} attributes. Every
+ * target is compiled into bitsets of its disjunctive normal form, a retrieval reads the variable pool of the
+ * subscription into two bitsets once and then matches each target with a few word-wise operations per clause,
+ * without evaluating any expression and without allocating apart from the result.
+ * <p>
+ * Documents whose targets cannot be compiled, e.g. because they use other attributes or functions, are kept in a
+ * naive index and evaluated on every retrieval. A target reading a variable that is missing or not a boolean is an
+ * error, like the eager operators of the generated targets make it in the interpreter.
+ */
+@Slf4j
+public class BitsetImmutableParsedDocumentIndex implements ImmutableParsedDocumentIndex {
+
+    private static final String RESOURCE = "resource";
+
+    private final EvaluationContext pdpScopedEvaluationContext;
+
+    private final Map<String, BitsetTarget> compiledTargets;
+    private final Map<String, Update> residualDocuments;
+
+    private final BitsetTarget[] targets;
+    private final String[] variableNames;
+    private final ImmutableParsedDocumentIndex residualIndex;
+
+    // reused by the retrievals, cleared before each retrieval
+    private final ScratchPool<SubscriptionBits> subscriptionBits;
+
+    public BitsetImmutableParsedDocumentIndex(EvaluationContext pdpScopedEvaluationContext) {
+        this(pdpScopedEvaluationContext, new HashMap<>(), new HashMap<>(), new NaiveImmutableParsedDocumentIndex());
+    }
+
+    private BitsetImmutableParsedDocumentIndex(EvaluationContext pdpScopedEvaluationContext,
+                                               Map<String, BitsetTarget> compiledTargets,
+                                               Map<String, Update> residualDocuments,
+                                               ImmutableParsedDocumentIndex residualIndex) {
+        this.pdpScopedEvaluationContext = pdpScopedEvaluationContext;
+        this.compiledTargets = compiledTargets;
+        this.residualDocuments = residualDocuments;
+        this.residualIndex = residualIndex;
+        this.targets = compiledTargets.values().toArray(new BitsetTarget[0]);
+
+        int words = 0;
+        for (BitsetTarget target : targets)
+            words = Math.max(words, target.getWords());
+        this.variableNames = new String[words * Long.SIZE];
+        for (int n = 0; n < variableNames.length; n++)
+            variableNames[n] = "x" + n;
+
+        int bitsetWords = words;
+        this.subscriptionBits = new ScratchPool<>(() -> new SubscriptionBits(bitsetWords));
+    }
+
+    @Override
+    public Mono<PolicyRetrievalResult> retrievePolicies(EvaluationContext subscriptionScopedEvaluationContext) {
+        var matches = new ArrayList<SAPL>();
+        boolean errorsInTarget = matchCompiledTargets(subscriptionScopedEvaluationContext, matches);
+
+        if (residualDocuments.isEmpty())
+            return Mono.just(new PolicyRetrievalResult(matches, errorsInTarget));
+
+        return residualIndex.retrievePolicies(subscriptionScopedEvaluationContext).map(residualResult -> {
+            List<AuthorizationDecisionEvaluable> allMatches = new ArrayList<>(residualResult.getMatchingDocuments());
+            allMatches.addAll(matches);
+            return new PolicyRetrievalResult(allMatches, errorsInTarget || residualResult.isErrorsInTarget());
+        });
+    }
+
+    /**
+     * @return true, if a compiled target failed to evaluate
+     */
+    private boolean matchCompiledTargets(EvaluationContext subscriptionScopedEvaluationContext,
+                                         List<SAPL> matches) {
+        var bits = subscriptionBits.take();
+        try {
+            readVariablePool(subscriptionScopedEvaluationContext, bits);
+
+            boolean errorsInTarget = false;
+            for (BitsetTarget target : targets) {
+                if (target.isError(bits.defined))
+                    errorsInTarget = true;
+                else if (target.matches(bits.truth))
+                    matches.add(target.getDocument());
+            }
+            return errorsInTarget;
+        } finally {
+            subscriptionBits.release(bits);
+        }
+    }
+
+    private void readVariablePool(EvaluationContext subscriptionScopedEvaluationContext, SubscriptionBits bits) {
+        Arrays.fill(bits.truth, 0L);
+        Arrays.fill(bits.defined, 0L);
+
+        var variables = subscriptionScopedEvaluationContext.getVariableCtx();
+        JsonNode resource = variables.exists(RESOURCE) ? variables.get(RESOURCE) : null;
+        if (resource == null || !resource.isObject())
+            return;
+
+        for (int n = 0; n < variableNames.length; n++) {
+            var value = resource.get(variableNames[n]);
+            if (value == null || !value.isBoolean())
+                continue;
+            long bit = 1L << n;
+            bits.defined[n >> 6] |= bit;
+            if (value.booleanValue())
+                bits.truth[n >> 6] |= bit;
+        }
+    }
+
+    @Override
+    public ImmutableParsedDocumentIndex apply(PrpUpdateEvent event) {
+        Map<String, BitsetTarget> updatedTargets = new HashMap<>(compiledTargets);
+        Map<String, Update> updatedResidualDocuments = new HashMap<>(residualDocuments);
+        List<Update> residualUpdates = new ArrayList<>();
+
+        for (Update update : event.getUpdates()) {
+            var name = update.getDocument().getPolicyElement().getSaplName();
+            if (update.getType() == Type.PUBLISH) {
+                var target = BitsetTargetCompiler.compile(update.getDocument(), pdpScopedEvaluationContext);
+                if (target != null) {
+                    updatedTargets.put(name, target);
+                    var replacedDocument = updatedResidualDocuments.remove(name);
+                    if (replacedDocument != null)
+                        residualUpdates.add(new Update(Type.UNPUBLISH, replacedDocument.getDocument(),
+                                replacedDocument.getRawText()));
+                } else {
+                    log.debug("target of {} cannot be compiled, it is evaluated on every retrieval", name);
+                    updatedTargets.remove(name);
+                    updatedResidualDocuments.put(name, update);
+                    residualUpdates.add(update);
+                }
+            } else if (update.getType() == Type.UNPUBLISH) {
+                updatedTargets.remove(name);
+                if (updatedResidualDocuments.remove(name) != null)
+                    residualUpdates.add(update);
+            }
+        }
+
+        var updatedResidualIndex = residualUpdates.isEmpty() ? residualIndex
+                : residualIndex.apply(new PrpUpdateEvent(residualUpdates));
+        return new BitsetImmutableParsedDocumentIndex(pdpScopedEvaluationContext, updatedTargets,
+                updatedResidualDocuments, updatedResidualIndex);
+    }
+
+    public int getCompiledDocumentCount() {
+        return compiledTargets.size();
+    }
+
+    public int getResidualDocumentCount() {
+        return residualDocuments.size();
+    }
+
+    /**
+     * Variables of a subscription that are true, respectively booleans at all.
+     */
+    private static final class SubscriptionBits {
+
+        private final long[] truth;
+        private final long[] defined;
+
+        private SubscriptionBits(int words) {
+            truth = new long[words];
+            defined = new long[words];
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.sapl.benchmark.index.bitset;
+
+import io.sapl.grammar.sapl.SAPL;
+
+/**
+ * Target of a document in disjunctive normal form, compiled into bitsets over the variable pool. Bit {@code n} of
+ * a set stands for the attribute {@code resource.xn}. The clauses are stored one after the other in flat arrays with
+ * a stride of {@link #words} longs, so that matching touches two arrays per clause.
+ */
+final class BitsetTarget {
+
+    private final SAPL document;
+    private final int words;
+    private final int clauses;
+
+    // variables that have to be true, respectively false, for a clause to hold
+    private final long[] positive;
+    private final long[] negative;
+
+    // variables evaluated by the target, all literals are evaluated eagerly
+    private final long[] referenced;
+
+    BitsetTarget(SAPL document, int words, int clauses, long[] positive, long[] negative, long[] referenced) {
+        this.document = document;
+        this.words = words;
+        this.clauses = clauses;
+        this.positive = positive;
+        this.negative = negative;
+        this.referenced = referenced;
+    }
+
+    SAPL getDocument() {
+        return document;
+    }
+
+    int getWords() {
+        return words;
+    }
+
+    /**
+     * @param defined bits of the variables that are booleans in the subscription, at least {@link #getWords()} words
+     * @return true, if a variable of the target is missing or not a boolean, so that its evaluation fails
+     */
+    boolean isError(long[] defined) {
+        for (int w = 0; w < words; w++) {
+            if ((referenced[w] & ~defined[w]) != 0L)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param truth bits of the variables that are true in the subscription, at least {@link #getWords()} words
+     * @return true, if any clause holds for the subscription. Only meaningful if {@link #isError} is false.
+     */
+    boolean matches(long[] truth) {
+        for (int c = 0, offset = 0; c < clauses; c++, offset += words) {
+            if (holds(truth, offset))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean holds(long[] truth, int offset) {
+        for (int w = 0; w < words; w++) {
+            if ((positive[offset + w] & ~truth[w]) != 0L || (negative[offset + w] & truth[w]) != 0L)
+                return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,108 @@
+package io.sapl.benchmark.index.bitset;
+
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.benchmark.index.flat.AttributePaths;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.ConjunctiveClause;
+import io.sapl.prp.index.canonical.DisjunctiveFormula;
+import io.sapl.prp.index.canonical.Literal;
+import io.sapl.prp.index.canonical.TreeWalker;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.ecore.EObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles targets that are boolean formulas over {@code resource.xn} attributes, as generated for the fully-random
+ * cases, into {@link BitsetTarget}s. The disjunctive normal form is built by the {@link TreeWalker} of the canonical
+ * index, its literals are mapped back to variables by comparing them to the attribute accesses of the target.
+ */
+@Slf4j
+@UtilityClass
+class BitsetTargetCompiler {
+
+    private static final String RESOURCE = "resource";
+    private static final Pattern VARIABLE = Pattern.compile("x(\\d+)");
+
+    /**
+     * @return the compiled target, or null if the target contains anything but attributes of the variable pool,
+     * negations, conjunctions, disjunctions and brackets
+     */
+    BitsetTarget compile(SAPL document, EvaluationContext pdpScopedEvaluationContext) {
+        Expression targetExpression = document.getPolicyElement().getTargetExpression();
+        if (targetExpression == null)
+            return new BitsetTarget(document, 0, 1, new long[0], new long[0], new long[0]);
+
+        try {
+            Map<String, String> imports = document.documentScopedEvaluationContext(pdpScopedEvaluationContext)
+                    .getImports();
+            var variables = variablesOf(targetExpression, imports);
+            if (variables.isEmpty())
+                return null;
+            return compile(document, TreeWalker.walk(targetExpression, imports), variables);
+        } catch (PolicyEvaluationException e) {
+            log.debug("cannot compile the target of {}", document.getPolicyElement().getSaplName(), e);
+            return null;
+        }
+    }
+
+    private BitsetTarget compile(SAPL document, DisjunctiveFormula formula, Map<Bool, Integer> variables) {
+        int maxVariable = variables.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        int words = (maxVariable >> 6) + 1;
+
+        List<ConjunctiveClause> clauses = List.copyOf(formula.getClauses());
+        long[] positive = new long[clauses.size() * words];
+        long[] negative = new long[clauses.size() * words];
+        // every variable of the target is evaluated by the eager operators, including those the normal form drops
+        // by absorption or contradiction, so each of them can make the target fail
+        long[] referenced = new long[words];
+        for (int variable : variables.values())
+            referenced[variable >> 6] |= 1L << variable;
+
+        for (int c = 0; c < clauses.size(); c++) {
+            for (Literal literal : clauses.get(c).getLiterals()) {
+                Integer variable = variables.get(literal.getBool());
+                if (variable == null)
+                    return null;
+                long bit = 1L << variable;
+                int word = c * words + (variable >> 6);
+                if (literal.isNegated())
+                    negative[word] |= bit;
+                else
+                    positive[word] |= bit;
+            }
+        }
+        return new BitsetTarget(document, words, clauses.size(), positive, negative, referenced);
+    }
+
+    /**
+     * @return the variable index of every attribute access to the variable pool, keyed by the literal the tree walker
+     * creates for it
+     */
+    private Map<Bool, Integer> variablesOf(Expression targetExpression, Map<String, String> imports) {
+        Map<Bool, Integer> variables = new HashMap<>();
+        addVariable(targetExpression, imports, variables);
+        targetExpression.eAllContents().forEachRemaining(node -> addVariable(node, imports, variables));
+        return variables;
+    }
+
+    private void addVariable(EObject node, Map<String, String> imports, Map<Bool, Integer> variables) {
+        if (!(node instanceof BasicIdentifier))
+            return;
+        var path = AttributePaths.pathOf((BasicIdentifier) node);
+        if (path == null || path.size() != 2 || !RESOURCE.equals(path.get(0)))
+            return;
+        var matcher = VARIABLE.matcher(path.get(1));
+        if (matcher.matches())
+            variables.put(new Bool((BasicIdentifier) node, imports), Integer.valueOf(matcher.group(1)));
+    }
+
+}
@@ -0,0 +1,23 @@
+package io.sapl.benchmark.index.cache;
+
+/**
+ * Eviction policy of the retrieval cache in front of a cached index type.
+ */
+public enum CacheEviction {
+
+    /**
+     * Evicts the least recently used entry.
+     */
+    LRU,
+
+    /**
+     * Evicts the least frequently used entry, the least recently used one among equally frequent entries.
+     */
+    LFU,
+
+    /**
+     * Window TinyLFU as implemented by Caffeine. New entries pass a small LRU window and are only admitted to the
+     * main cache if their estimated frequency exceeds that of the eviction candidate.
+     */
+    W_TINY_LFU
+}
@@ -0,0 +1,85 @@
+package io.sapl.benchmark.index.cache;
+
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import reactor.core.publisher.Mono;
+
+/**
+ * Memoizes the retrieval results of another index per subscription, in a bounded cache with the given eviction
+ * policy. Applying an update creates the updated index with an empty cache, the results of the old version are never
+ * served for the new one.
+ * <p>
+ * Results are only valid as long as targets depend on the subscription alone, which holds for all generated policy
+ * sets. Results with errors in a target are not cached.
+ */
+public class CachingImmutableParsedDocumentIndex implements ImmutableParsedDocumentIndex {
+
+    private final ImmutableParsedDocumentIndex delegate;
+    private final CacheEviction eviction;
+    private final int maximumSize;
+    private final RetrievalCacheStatistics statistics;
+    private final RetrievalCache cache;
+
+    public CachingImmutableParsedDocumentIndex(ImmutableParsedDocumentIndex delegate, CacheEviction eviction,
+                                               int maximumSize) {
+        this(delegate, eviction, maximumSize, new RetrievalCacheStatistics());
+    }
+
+    private CachingImmutableParsedDocumentIndex(ImmutableParsedDocumentIndex delegate, CacheEviction eviction,
+                                                int maximumSize, RetrievalCacheStatistics statistics) {
+        this.delegate = delegate;
+        this.eviction = eviction;
+        this.maximumSize = maximumSize;
+        this.statistics = statistics;
+        this.cache = RetrievalCache.create(eviction, maximumSize, statistics);
+    }
+
+    @Override
+    public Mono<PolicyRetrievalResult> retrievePolicies(EvaluationContext subscriptionScopedEvaluationContext) {
+        var key = SubscriptionKey.of(subscriptionScopedEvaluationContext);
+        var cachedResult = cache.get(key);
+        if (cachedResult != null) {
+            statistics.recordHit();
+            return Mono.just(cachedResult);
+        }
+
+        statistics.recordMiss();
+        return delegate.retrievePolicies(subscriptionScopedEvaluationContext).doOnNext(result -> {
+            if (!result.isErrorsInTarget())
+                cache.put(key, result);
+        });
+    }
+
+    @Override
+    public ImmutableParsedDocumentIndex apply(PrpUpdateEvent event) {
+        statistics.recordInvalidation(cache.size());
+        return new CachingImmutableParsedDocumentIndex(delegate.apply(event), eviction, maximumSize, statistics);
+    }
+
+    /**
+     * Drops all cached results of this version of the index, e.g. to measure the heap they retain. Unlike an update,
+     * this is not counted in the statistics.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    public long getCachedEntries() {
+        return cache.size();
+    }
+
+    public RetrievalCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    public CacheEviction getEviction() {
+        return eviction;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+}
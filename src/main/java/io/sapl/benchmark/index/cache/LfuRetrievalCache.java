@@ -0,0 +1,93 @@
+package io.sapl.benchmark.index.cache;
+
+import io.sapl.prp.PolicyRetrievalResult;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * LFU cache with constant time operations. Keys are kept in one insertion ordered bucket per access frequency, an
+ * eviction removes the oldest key of the lowest frequency. All operations are synchronized.
+ */
+class LfuRetrievalCache implements RetrievalCache {
+
+    private final int maximumSize;
+    private final RetrievalCacheStatistics statistics;
+
+    private final Map<SubscriptionKey, PolicyRetrievalResult> entries = new HashMap<>();
+    private final Map<SubscriptionKey, Integer> frequencies = new HashMap<>();
+    private final Map<Integer, LinkedHashSet<SubscriptionKey>> buckets = new HashMap<>();
+    private int minimumFrequency;
+
+    LfuRetrievalCache(int maximumSize, RetrievalCacheStatistics statistics) {
+        this.maximumSize = maximumSize;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public synchronized PolicyRetrievalResult get(SubscriptionKey key) {
+        var result = entries.get(key);
+        if (result != null)
+            incrementFrequency(key);
+        return result;
+    }
+
+    @Override
+    public synchronized void put(SubscriptionKey key, PolicyRetrievalResult result) {
+        if (maximumSize <= 0)
+            return;
+
+        if (entries.containsKey(key)) {
+            entries.put(key, result);
+            incrementFrequency(key);
+            return;
+        }
+
+        if (entries.size() >= maximumSize)
+            evict();
+
+        entries.put(key, result);
+        frequencies.put(key, 1);
+        buckets.computeIfAbsent(1, frequency -> new LinkedHashSet<>()).add(key);
+        minimumFrequency = 1;
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        frequencies.clear();
+        buckets.clear();
+        minimumFrequency = 0;
+    }
+
+    private void incrementFrequency(SubscriptionKey key) {
+        int frequency = frequencies.get(key);
+        var bucket = buckets.get(frequency);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            buckets.remove(frequency);
+            if (minimumFrequency == frequency)
+                minimumFrequency++;
+        }
+        frequencies.put(key, frequency + 1);
+        buckets.computeIfAbsent(frequency + 1, f -> new LinkedHashSet<>()).add(key);
+    }
+
+    private void evict() {
+        var bucket = buckets.get(minimumFrequency);
+        var victim = bucket.iterator().next();
+        bucket.remove(victim);
+        if (bucket.isEmpty())
+            buckets.remove(minimumFrequency);
+        entries.remove(victim);
+        frequencies.remove(victim);
+        statistics.recordEviction();
+    }
+
+}
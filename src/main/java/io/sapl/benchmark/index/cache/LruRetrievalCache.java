@@ -0,0 +1,47 @@
+package io.sapl.benchmark.index.cache;
+
+import io.sapl.prp.PolicyRetrievalResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache on an access ordered LinkedHashMap. Every access reorders the map, so all operations are synchronized.
+ */
+class LruRetrievalCache implements RetrievalCache {
+
+    private final Map<SubscriptionKey, PolicyRetrievalResult> entries;
+
+    LruRetrievalCache(int maximumSize, RetrievalCacheStatistics statistics) {
+        entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SubscriptionKey, PolicyRetrievalResult> eldest) {
+                if (size() <= maximumSize)
+                    return false;
+                statistics.recordEviction();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public synchronized PolicyRetrievalResult get(SubscriptionKey key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public synchronized void put(SubscriptionKey key, PolicyRetrievalResult result) {
+        entries.put(key, result);
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+}
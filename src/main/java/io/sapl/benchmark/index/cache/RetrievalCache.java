@@ -0,0 +1,35 @@
+package io.sapl.benchmark.index.cache;
+
+import io.sapl.prp.PolicyRetrievalResult;
+
+/**
+ * Bounded map from subscriptions to their retrieval results. Implementations are thread-safe and report evictions to
+ * the statistics they were created with.
+ */
+interface RetrievalCache {
+
+    /**
+     * @return the cached result, or null
+     */
+    PolicyRetrievalResult get(SubscriptionKey key);
+
+    void put(SubscriptionKey key, PolicyRetrievalResult result);
+
+    long size();
+
+    void clear();
+
+    static RetrievalCache create(CacheEviction eviction, int maximumSize, RetrievalCacheStatistics statistics) {
+        switch (eviction) {
+            case LRU:
+                return new LruRetrievalCache(maximumSize, statistics);
+            case LFU:
+                return new LfuRetrievalCache(maximumSize, statistics);
+            case W_TINY_LFU:
+                //fall through
+            default:
+                return new TinyLfuRetrievalCache(maximumSize, statistics);
+        }
+    }
+
+}
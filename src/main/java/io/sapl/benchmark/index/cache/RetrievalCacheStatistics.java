@@ -0,0 +1,64 @@
+package io.sapl.benchmark.index.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hits, misses and evictions of a cached index. Shared by all versions of the index created through updates, so
+ * that an update benchmark reports the totals over all of them.
+ */
+public class RetrievalCacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidatedEntries = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordInvalidation(long entries) {
+        invalidatedEntries.add(entries);
+    }
+
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        invalidatedEntries.reset();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Number of entries dropped because an update invalidated the cache.
+     */
+    public long getInvalidatedEntries() {
+        return invalidatedEntries.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = getHits();
+        long requests = hitCount + getMisses();
+        return requests == 0 ? 0D : (double) hitCount / requests;
+    }
+
+}
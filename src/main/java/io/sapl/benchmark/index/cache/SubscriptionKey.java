@@ -0,0 +1,55 @@
+package io.sapl.benchmark.index.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.sapl.interpreter.EvaluationContext;
+import lombok.ToString;
+
+import java.util.Arrays;
+
+/**
+ * Cache key of a subscription. Two subscriptions have the same key if their subject, action, resource and environment
+ * are equal JSON values, regardless of the order of object fields.
+ */
+@ToString
+final class SubscriptionKey {
+
+    private static final String[] ELEMENTS = {"subject", "action", "resource", "environment"};
+
+    private final JsonNode[] elements;
+
+    // JSON trees hash recursively, the hash is computed once per retrieval instead of once per lookup
+    @ToString.Exclude
+    private final int hash;
+
+    private SubscriptionKey(JsonNode[] elements) {
+        this.elements = elements;
+        this.hash = Arrays.hashCode(elements);
+    }
+
+    static SubscriptionKey of(EvaluationContext subscriptionScopedEvaluationContext) {
+        var variables = subscriptionScopedEvaluationContext.getVariableCtx();
+        var elements = new JsonNode[ELEMENTS.length];
+        for (int i = 0; i < ELEMENTS.length; i++) {
+            var value = variables.exists(ELEMENTS[i]) ? variables.get(ELEMENTS[i]) : null;
+            elements[i] = value == null ? NullNode.getInstance() : value;
+        }
+        return new SubscriptionKey(elements);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof SubscriptionKey))
+            return false;
+        var otherKey = (SubscriptionKey) other;
+        return hash == otherKey.hash && Arrays.equals(elements, otherKey.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
@@ -0,0 +1,46 @@
+package io.sapl.benchmark.index.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.sapl.prp.PolicyRetrievalResult;
+
+/**
+ * W-TinyLFU cache backed by Caffeine. Maintenance is run on the calling thread instead of the common pool, so that
+ * its cost is part of the measured retrievals.
+ */
+class TinyLfuRetrievalCache implements RetrievalCache {
+
+    private final Cache<SubscriptionKey, PolicyRetrievalResult> cache;
+
+    TinyLfuRetrievalCache(int maximumSize, RetrievalCacheStatistics statistics) {
+        cache = Caffeine.newBuilder().maximumSize(maximumSize).executor(Runnable::run)
+                .removalListener((SubscriptionKey key, PolicyRetrievalResult result, RemovalCause cause) -> {
+                    if (cause.wasEvicted())
+                        statistics.recordEviction();
+                }).build();
+    }
+
+    @Override
+    public PolicyRetrievalResult get(SubscriptionKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(SubscriptionKey key, PolicyRetrievalResult result) {
+        cache.put(key, result);
+    }
+
+    @Override
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+}
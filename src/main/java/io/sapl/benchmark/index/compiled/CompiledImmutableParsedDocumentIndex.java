@@ -0,0 +1,137 @@
+package io.sapl.benchmark.index.compiled;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.benchmark.index.flat.AttributeSlots;
+import io.sapl.benchmark.index.flat.FlatSubscription;
+import io.sapl.benchmark.index.flat.FlatSubscriptionIndex;
+import io.sapl.grammar.sapl.AuthorizationDecisionEvaluable;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index without any index structure, which checks every target like the naive index, but as compiled predicates
+ * instead of interpreting the target expressions. Compared to NAIVE, it shows the cost of interpretation, compared to
+ * CANONICAL, what the index structure saves on top.
+ * <p>
+ * A retrieval resolves the attributes read by all targets once into a {@link FlatSubscription}, which the
+ * {@link java.lang.invoke.MethodHandle} trees of the targets then read by slot. Documents with literals that cannot
+ * be compiled are evaluated by the interpreter on every retrieval.
+ */
+@Slf4j
+public class CompiledImmutableParsedDocumentIndex implements FlatSubscriptionIndex {
+
+    private final EvaluationContext pdpScopedEvaluationContext;
+
+    private final AttributeSlots slots;
+    private final Map<String, CompiledTarget> compiledTargets;
+    private final Map<String, SAPL> residualDocuments;
+
+    private final CompiledTarget[] targets;
+
+    public CompiledImmutableParsedDocumentIndex(EvaluationContext pdpScopedEvaluationContext) {
+        this(pdpScopedEvaluationContext, new AttributeSlots(), new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    private CompiledImmutableParsedDocumentIndex(EvaluationContext pdpScopedEvaluationContext,
+                                                 AttributeSlots slots,
+                                                 Map<String, CompiledTarget> compiledTargets,
+                                                 Map<String, SAPL> residualDocuments) {
+        this.pdpScopedEvaluationContext = pdpScopedEvaluationContext;
+        this.slots = slots;
+        this.compiledTargets = compiledTargets;
+        this.residualDocuments = residualDocuments;
+        this.targets = compiledTargets.values().toArray(new CompiledTarget[0]);
+    }
+
+    @Override
+    public AttributeSlots getAttributeSlots() {
+        return slots;
+    }
+
+    @Override
+    public Mono<PolicyRetrievalResult> retrievePolicies(FlatSubscription flatSubscription,
+                                                        EvaluationContext subscriptionScopedEvaluationContext) {
+        List<AuthorizationDecisionEvaluable> matches = new ArrayList<>();
+        boolean errorsInTarget = false;
+        for (CompiledTarget target : targets) {
+            if (target.isError(flatSubscription))
+                errorsInTarget = true;
+            else if (target.matches(flatSubscription))
+                matches.add(target.getDocument());
+        }
+
+        if (residualDocuments.isEmpty())
+            return Mono.just(new PolicyRetrievalResult(matches, errorsInTarget));
+
+        boolean compiledErrors = errorsInTarget;
+        return Flux.fromIterable(residualDocuments.values())
+                .concatMap(document -> document.matches(subscriptionScopedEvaluationContext)
+                        .map(match -> new Evaluation(document, match)))
+                .collectList().map(evaluations -> {
+                    boolean residualErrors = false;
+                    for (Evaluation evaluation : evaluations) {
+                        if (evaluation.match.isError())
+                            residualErrors = true;
+                        else if (evaluation.match.isBoolean() && evaluation.match.getBoolean())
+                            matches.add(evaluation.document);
+                    }
+                    return new PolicyRetrievalResult(matches, compiledErrors || residualErrors);
+                });
+    }
+
+    @Override
+    public ImmutableParsedDocumentIndex apply(PrpUpdateEvent event) {
+        var updatedSlots = slots.copy();
+        Map<String, CompiledTarget> updatedTargets = new LinkedHashMap<>(compiledTargets);
+        Map<String, SAPL> updatedResidualDocuments = new LinkedHashMap<>(residualDocuments);
+
+        for (Update update : event.getUpdates()) {
+            var name = update.getDocument().getPolicyElement().getSaplName();
+            updatedTargets.remove(name);
+            updatedResidualDocuments.remove(name);
+            if (update.getType() != Type.PUBLISH)
+                continue;
+
+            var target = TargetCompiler.compile(update.getDocument(), pdpScopedEvaluationContext, updatedSlots);
+            if (target != null) {
+                updatedTargets.put(name, target);
+            } else {
+                log.debug("target of {} cannot be compiled, it is interpreted on every retrieval", name);
+                updatedResidualDocuments.put(name, update.getDocument());
+            }
+        }
+
+        return new CompiledImmutableParsedDocumentIndex(pdpScopedEvaluationContext, updatedSlots, updatedTargets,
+                updatedResidualDocuments);
+    }
+
+    public int getCompiledDocumentCount() {
+        return compiledTargets.size();
+    }
+
+    public int getResidualDocumentCount() {
+        return residualDocuments.size();
+    }
+
+    @RequiredArgsConstructor
+    private static final class Evaluation {
+
+        private final SAPL document;
+        private final Val match;
+    }
+
+}
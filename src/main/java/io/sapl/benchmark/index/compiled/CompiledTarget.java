@@ -0,0 +1,44 @@
+package io.sapl.benchmark.index.compiled;
+
+import io.sapl.benchmark.index.flat.FlatSubscription;
+import io.sapl.grammar.sapl.SAPL;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Target of a document compiled into two predicates over the {@link FlatSubscription}.
+ */
+@RequiredArgsConstructor
+final class CompiledTarget {
+
+    private final SAPL document;
+
+    private final MethodHandle matches;
+
+    // holds if a literal of the target fails, like a boolean attribute that is missing
+    private final MethodHandle error;
+
+    SAPL getDocument() {
+        return document;
+    }
+
+    boolean isError(FlatSubscription subscription) {
+        try {
+            return (boolean) error.invokeExact(subscription);
+        } catch (Throwable e) {
+            throw new IllegalStateException("error predicate of " + document.getPolicyElement().getSaplName()
+                    + " failed", e);
+        }
+    }
+
+    boolean matches(FlatSubscription subscription) {
+        try {
+            return (boolean) matches.invokeExact(subscription);
+        } catch (Throwable e) {
+            throw new IllegalStateException("target predicate of " + document.getPolicyElement().getSaplName()
+                    + " failed", e);
+        }
+    }
+
+}
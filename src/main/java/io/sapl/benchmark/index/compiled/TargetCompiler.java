@@ -0,0 +1,141 @@
+package io.sapl.benchmark.index.compiled;
+
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.benchmark.index.flat.AttributePaths;
+import io.sapl.benchmark.index.flat.AttributeSlots;
+import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.ConjunctiveClause;
+import io.sapl.prp.index.canonical.DisjunctiveFormula;
+import io.sapl.prp.index.canonical.Literal;
+import io.sapl.prp.index.canonical.TreeWalker;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.ecore.EObject;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the {@link DisjunctiveFormula} of a target, as built by the {@link TreeWalker}, into {@link MethodHandle}
+ * trees over {@link AttributeSlots}. Literals can be boolean attributes like {@code resource.x3}, equality of an
+ * attribute and a string constant and membership of a string constant in an attribute. The literals of the formula
+ * are mapped back to these expressions by comparing them to the literals built for the expressions of the target.
+ */
+@Slf4j
+@UtilityClass
+class TargetCompiler {
+
+    /**
+     * @return the compiled target, or null if it contains a literal that cannot be compiled
+     */
+    CompiledTarget compile(SAPL document, EvaluationContext pdpScopedEvaluationContext, AttributeSlots slots) {
+        Expression targetExpression = document.getPolicyElement().getTargetExpression();
+        if (targetExpression == null)
+            return new CompiledTarget(document, TargetPredicates.TRUE, TargetPredicates.FALSE);
+
+        try {
+            Map<String, String> imports = document.documentScopedEvaluationContext(pdpScopedEvaluationContext)
+                    .getImports();
+            var predicates = literalPredicatesOf(targetExpression, imports, slots);
+            if (predicates.isEmpty())
+                return null;
+            return compile(document, TreeWalker.walk(targetExpression, imports), predicates);
+        } catch (PolicyEvaluationException e) {
+            log.debug("cannot compile the target of {}", document.getPolicyElement().getSaplName(), e);
+            return null;
+        }
+    }
+
+    private CompiledTarget compile(SAPL document, DisjunctiveFormula formula,
+                                   Map<Bool, LiteralPredicate> predicates) {
+        List<MethodHandle> clauses = new ArrayList<>();
+        // keyed by attribute path, every attribute that can fail is checked once
+        Map<List<String>, MethodHandle> errors = new LinkedHashMap<>();
+        for (ConjunctiveClause clause : formula.getClauses()) {
+            List<MethodHandle> literals = new ArrayList<>();
+            for (Literal literal : clause.getLiterals()) {
+                var predicate = predicates.get(literal.getBool());
+                if (predicate == null)
+                    return null;
+                literals.add(literal.isNegated() ? TargetPredicates.not(predicate.getMatches())
+                        : predicate.getMatches());
+                if (predicate.getError() != null)
+                    errors.putIfAbsent(predicate.getPath(), predicate.getError());
+            }
+            clauses.add(TargetPredicates.all(literals));
+        }
+        return new CompiledTarget(document, TargetPredicates.any(clauses),
+                TargetPredicates.any(new ArrayList<>(errors.values())));
+    }
+
+    private Map<Bool, LiteralPredicate> literalPredicatesOf(Expression targetExpression, Map<String, String> imports,
+                                                            AttributeSlots slots) {
+        Map<Bool, LiteralPredicate> predicates = new HashMap<>();
+        addLiteralPredicate(targetExpression, imports, slots, predicates);
+        targetExpression.eAllContents()
+                .forEachRemaining(node -> addLiteralPredicate(node, imports, slots, predicates));
+        return predicates;
+    }
+
+    private void addLiteralPredicate(EObject node, Map<String, String> imports, AttributeSlots slots,
+                                     Map<Bool, LiteralPredicate> predicates) {
+        if (!(node instanceof Expression))
+            return;
+        var predicate = literalPredicateOf(AttributePaths.unwrapped((Expression) node), slots);
+        if (predicate != null)
+            predicates.put(new Bool((Expression) node, imports), predicate);
+    }
+
+    private LiteralPredicate literalPredicateOf(Expression expression, AttributeSlots slots) {
+        if (expression instanceof Equals) {
+            var equals = (Equals) expression;
+            var predicate = equalityOf(equals.getLeft(), equals.getRight(), slots);
+            return predicate != null ? predicate : equalityOf(equals.getRight(), equals.getLeft(), slots);
+        }
+        if (expression instanceof ElementOf) {
+            var elementOf = (ElementOf) expression;
+            var path = AttributePaths.pathOf(elementOf.getRight());
+            var constant = AttributePaths.stringConstantOf(elementOf.getLeft());
+            if (path == null || constant == null)
+                return null;
+            return new LiteralPredicate(path, TargetPredicates.contains(slots.slotOf(path), constant), null);
+        }
+        var path = AttributePaths.pathOf(expression);
+        if (path == null)
+            return null;
+        int slot = slots.slotOf(path);
+        return new LiteralPredicate(path, TargetPredicates.isTrue(slot), TargetPredicates.isNotBoolean(slot));
+    }
+
+    private LiteralPredicate equalityOf(Expression attribute, Expression constant, AttributeSlots slots) {
+        var path = AttributePaths.pathOf(attribute);
+        var value = AttributePaths.stringConstantOf(constant);
+        if (path == null || value == null)
+            return null;
+        return new LiteralPredicate(path, TargetPredicates.isEqual(slots.slotOf(path), value), null);
+    }
+
+    /**
+     * Predicates of a literal, the error predicate is null if the literal cannot fail.
+     */
+    @Value
+    private static class LiteralPredicate {
+
+        List<String> path;
+
+        MethodHandle matches;
+
+        MethodHandle error;
+    }
+
+}
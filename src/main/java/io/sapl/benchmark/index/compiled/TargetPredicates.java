@@ -0,0 +1,134 @@
+package io.sapl.benchmark.index.compiled;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.benchmark.index.flat.FlatSubscription;
+import lombok.experimental.UtilityClass;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Literal predicates over the slots of a {@link FlatSubscription} and the combinators building a target from them.
+ * All handles are of type {@code (FlatSubscription)boolean}.
+ */
+@UtilityClass
+class TargetPredicates {
+
+    static final MethodHandle TRUE = constant(true);
+    static final MethodHandle FALSE = constant(false);
+
+    private static final MethodHandle IS_TRUE;
+    private static final MethodHandle IS_NOT_BOOLEAN;
+    private static final MethodHandle IS_EQUAL;
+    private static final MethodHandle CONTAINS;
+    private static final MethodHandle NOT;
+
+    static {
+        var lookup = MethodHandles.lookup();
+        try {
+            IS_TRUE = lookup.findStatic(TargetPredicates.class, "isTrue",
+                    MethodType.methodType(boolean.class, FlatSubscription.class, int.class));
+            IS_NOT_BOOLEAN = lookup.findStatic(TargetPredicates.class, "isNotBoolean",
+                    MethodType.methodType(boolean.class, FlatSubscription.class, int.class));
+            IS_EQUAL = lookup.findStatic(TargetPredicates.class, "isEqual",
+                    MethodType.methodType(boolean.class, FlatSubscription.class, int.class, JsonNode.class));
+            CONTAINS = lookup.findStatic(TargetPredicates.class, "contains",
+                    MethodType.methodType(boolean.class, FlatSubscription.class, int.class, JsonNode.class));
+            NOT = lookup.findStatic(TargetPredicates.class, "not",
+                    MethodType.methodType(boolean.class, boolean.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @return a predicate holding if the attribute in the slot is {@code true}
+     */
+    MethodHandle isTrue(int slot) {
+        return MethodHandles.insertArguments(IS_TRUE, 1, slot);
+    }
+
+    /**
+     * @return a predicate holding if the attribute in the slot is missing or not a boolean, so that using it as a
+     * literal fails
+     */
+    MethodHandle isNotBoolean(int slot) {
+        return MethodHandles.insertArguments(IS_NOT_BOOLEAN, 1, slot);
+    }
+
+    MethodHandle isEqual(int slot, JsonNode constant) {
+        return MethodHandles.insertArguments(IS_EQUAL, 1, slot, constant);
+    }
+
+    /**
+     * @return a predicate holding if the attribute in the slot is an array containing the constant
+     */
+    MethodHandle contains(int slot, JsonNode constant) {
+        return MethodHandles.insertArguments(CONTAINS, 1, slot, constant);
+    }
+
+    MethodHandle not(MethodHandle predicate) {
+        return MethodHandles.filterReturnValue(predicate, NOT);
+    }
+
+    /**
+     * @return the conjunction of the predicates, evaluated from left to right until the first one fails
+     */
+    MethodHandle all(List<MethodHandle> predicates) {
+        if (predicates.isEmpty())
+            return TRUE;
+        if (predicates.size() == 1)
+            return predicates.get(0);
+        // balanced, so that the depth of the tree grows logarithmically with the number of predicates
+        int middle = predicates.size() / 2;
+        return MethodHandles.guardWithTest(all(predicates.subList(0, middle)),
+                all(predicates.subList(middle, predicates.size())), FALSE);
+    }
+
+    /**
+     * @return the disjunction of the predicates, evaluated from left to right until the first one holds
+     */
+    MethodHandle any(List<MethodHandle> predicates) {
+        if (predicates.isEmpty())
+            return FALSE;
+        if (predicates.size() == 1)
+            return predicates.get(0);
+        int middle = predicates.size() / 2;
+        return MethodHandles.guardWithTest(any(predicates.subList(0, middle)), TRUE,
+                any(predicates.subList(middle, predicates.size())));
+    }
+
+    private static MethodHandle constant(boolean value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(boolean.class, value), 0, FlatSubscription.class);
+    }
+
+    private static boolean isTrue(FlatSubscription subscription, int slot) {
+        return subscription.isTrue(slot);
+    }
+
+    private static boolean isNotBoolean(FlatSubscription subscription, int slot) {
+        return !subscription.isBoolean(slot);
+    }
+
+    private static boolean isEqual(FlatSubscription subscription, int slot, JsonNode constant) {
+        return constant.equals(subscription.value(slot));
+    }
+
+    private static boolean contains(FlatSubscription subscription, int slot, JsonNode constant) {
+        var value = subscription.value(slot);
+        if (value == null || !value.isArray())
+            return false;
+        for (int i = 0; i < value.size(); i++) {
+            if (constant.equals(value.get(i)))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean not(boolean value) {
+        return !value;
+    }
+
+}
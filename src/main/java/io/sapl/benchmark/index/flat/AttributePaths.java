@@ -0,0 +1,77 @@
+package io.sapl.benchmark.index.flat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.BasicValue;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.KeyStep;
+import io.sapl.grammar.sapl.Step;
+import io.sapl.grammar.sapl.StringLiteral;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recognizes the parts of target expressions that the compiling indexes handle without the interpreter: plain
+ * attributes of the subscription and string constants.
+ */
+@UtilityClass
+public class AttributePaths {
+
+    private static final Set<String> SUBSCRIPTION_ELEMENTS = Set.of("subject", "action", "resource", "environment");
+
+    /**
+     * @return the subscription element followed by the keys, e.g. {@code [subject, authorities]}, or null if the
+     * expression is not a plain attribute of the subscription
+     */
+    public List<String> pathOf(Expression expression) {
+        expression = unwrapped(expression);
+        if (!(expression instanceof BasicIdentifier))
+            return null;
+        var identifier = (BasicIdentifier) expression;
+        if (!SUBSCRIPTION_ELEMENTS.contains(identifier.getIdentifier()) || identifier.getFilter() != null
+                || identifier.getSubtemplate() != null)
+            return null;
+
+        List<String> path = new ArrayList<>(identifier.getSteps().size() + 1);
+        path.add(identifier.getIdentifier());
+        for (Step step : identifier.getSteps()) {
+            if (!(step instanceof KeyStep))
+                return null;
+            path.add(((KeyStep) step).getId());
+        }
+        return path;
+    }
+
+    /**
+     * @return the value of a string literal, or null if the expression is anything else
+     */
+    public JsonNode stringConstantOf(Expression expression) {
+        expression = unwrapped(expression);
+        if (!(expression instanceof BasicValue))
+            return null;
+        var value = (BasicValue) expression;
+        if (!value.getSteps().isEmpty() || value.getFilter() != null || value.getSubtemplate() != null
+                || !(value.getValue() instanceof StringLiteral))
+            return null;
+        return JsonNodeFactory.instance.textNode(((StringLiteral) value.getValue()).getString());
+    }
+
+    /**
+     * @return the expression in plain brackets, or the expression itself
+     */
+    public Expression unwrapped(Expression expression) {
+        while (expression instanceof BasicGroup) {
+            var group = (BasicGroup) expression;
+            if (!group.getSteps().isEmpty() || group.getFilter() != null || group.getSubtemplate() != null)
+                break;
+            expression = group.getExpression();
+        }
+        return expression;
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.sapl.benchmark.index.flat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.interpreter.EvaluationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interned attribute paths read by the targets of an index, e.g. {@code subject.authorities}, each with a slot of the
+ * {@link FlatSubscription}. Slots are only ever appended, so that targets compiled against an earlier version stay
+ * valid for a copy extended by later updates.
+ */
+public final class AttributeSlots {
+
+    private final List<String[]> paths;
+    private final Map<List<String>, Integer> slots;
+
+    public AttributeSlots() {
+        this(new ArrayList<>(), new HashMap<>());
+    }
+
+    private AttributeSlots(List<String[]> paths, Map<List<String>, Integer> slots) {
+        this.paths = paths;
+        this.slots = slots;
+    }
+
+    public AttributeSlots copy() {
+        return new AttributeSlots(new ArrayList<>(paths), new HashMap<>(slots));
+    }
+
+    /**
+     * @param path the subscription element, e.g. {@code resource}, followed by the keys of the attribute, see
+     *             {@link AttributePaths#pathOf}
+     * @return the slot of the path, added if the path is new
+     */
+    public int slotOf(List<String> path) {
+        return slots.computeIfAbsent(List.copyOf(path), newPath -> {
+            // the same names are read from every subscription, interned they are compared by reference first
+            paths.add(newPath.stream().map(String::intern).toArray(String[]::new));
+            return paths.size() - 1;
+        });
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Walks every path once and keeps the values, so that literals read them by slot instead of navigating the
+     * subscription again.
+     */
+    public FlatSubscription flatten(EvaluationContext subscriptionScopedEvaluationContext) {
+        var flatSubscription = new FlattenedSubscription(paths.size());
+        for (int slot = 0; slot < paths.size(); slot++)
+            flatSubscription.set(slot, resolve(slot, subscriptionScopedEvaluationContext));
+        return flatSubscription;
+    }
+
+    /**
+     * @return a view of the subscription that walks the path of a slot on every read, as a baseline for
+     * {@link #flatten}
+     */
+    public FlatSubscription walking(EvaluationContext subscriptionScopedEvaluationContext) {
+        return new PathWalkingSubscription(this, subscriptionScopedEvaluationContext);
+    }
+
+    /**
+     * @return the value at the path of the slot, null if it is undefined
+     */
+    JsonNode resolve(int slot, EvaluationContext subscriptionScopedEvaluationContext) {
+        var variables = subscriptionScopedEvaluationContext.getVariableCtx();
+        var path = paths.get(slot);
+        JsonNode value = variables.exists(path[0]) ? variables.get(path[0]) : null;
+        for (int i = 1; i < path.length && value != null; i++)
+            value = value.get(path[i]);
+        return value;
+    }
+
+}
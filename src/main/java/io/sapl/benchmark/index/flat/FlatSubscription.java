@@ -0,0 +1,26 @@
+package io.sapl.benchmark.index.flat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Values of the {@link AttributeSlots} in one subscription, read by slot. Created by
+ * {@link AttributeSlots#flatten}, which resolves every slot up front, or by {@link AttributeSlots#walking}, which
+ * resolves the path of a slot from the JSON tree on every read.
+ */
+public abstract class FlatSubscription {
+
+    /**
+     * @return the value of the attribute, null if it is undefined
+     */
+    public abstract JsonNode value(int slot);
+
+    public abstract boolean isTrue(int slot);
+
+    /**
+     * @return false if the attribute is undefined or not a boolean
+     */
+    public abstract boolean isBoolean(int slot);
+
+    public abstract int size();
+
+}
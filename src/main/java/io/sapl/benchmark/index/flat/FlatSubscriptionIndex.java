@@ -0,0 +1,29 @@
+package io.sapl.benchmark.index.flat;
+
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import reactor.core.publisher.Mono;
+
+/**
+ * An index whose targets read the subscription through {@link AttributeSlots}. Retrieving with a subscription that
+ * has already been flattened separates the cost of flattening from the cost of matching.
+ */
+public interface FlatSubscriptionIndex extends ImmutableParsedDocumentIndex {
+
+    AttributeSlots getAttributeSlots();
+
+    /**
+     * @param flatSubscription the subscription flattened with the {@link #getAttributeSlots()} of this index
+     * @param subscriptionScopedEvaluationContext the same subscription, for documents that are interpreted
+     */
+    Mono<PolicyRetrievalResult> retrievePolicies(FlatSubscription flatSubscription,
+                                                 EvaluationContext subscriptionScopedEvaluationContext);
+
+    @Override
+    default Mono<PolicyRetrievalResult> retrievePolicies(EvaluationContext subscriptionScopedEvaluationContext) {
+        return retrievePolicies(getAttributeSlots().flatten(subscriptionScopedEvaluationContext),
+                subscriptionScopedEvaluationContext);
+    }
+
+}
@@ -0,0 +1,51 @@
+package io.sapl.benchmark.index.flat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Subscription with every slot resolved once. Booleans are additionally kept as primitives, so that boolean literals
+ * read a byte instead of inspecting a JSON node.
+ */
+final class FlattenedSubscription extends FlatSubscription {
+
+    private static final byte FALSE = 0;
+    private static final byte TRUE = 1;
+    private static final byte NOT_BOOLEAN = 2;
+
+    private final JsonNode[] values;
+    private final byte[] booleans;
+
+    FlattenedSubscription(int size) {
+        values = new JsonNode[size];
+        booleans = new byte[size];
+    }
+
+    void set(int slot, JsonNode value) {
+        values[slot] = value;
+        if (value == null || !value.isBoolean())
+            booleans[slot] = NOT_BOOLEAN;
+        else
+            booleans[slot] = value.booleanValue() ? TRUE : FALSE;
+    }
+
+    @Override
+    public JsonNode value(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public boolean isTrue(int slot) {
+        return booleans[slot] == TRUE;
+    }
+
+    @Override
+    public boolean isBoolean(int slot) {
+        return booleans[slot] != NOT_BOOLEAN;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.sapl.benchmark.index.flat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.interpreter.EvaluationContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Subscription resolving the path of a slot from the JSON tree on every read, like an interpreted attribute access.
+ * Not used by the indexes, it is the baseline the cost of flattening is weighed against.
+ */
+@RequiredArgsConstructor
+final class PathWalkingSubscription extends FlatSubscription {
+
+    private final AttributeSlots slots;
+    private final EvaluationContext subscriptionScopedEvaluationContext;
+
+    @Override
+    public JsonNode value(int slot) {
+        return slots.resolve(slot, subscriptionScopedEvaluationContext);
+    }
+
+    @Override
+    public boolean isTrue(int slot) {
+        var value = value(slot);
+        return value != null && value.isBoolean() && value.booleanValue();
+    }
+
+    @Override
+    public boolean isBoolean(int slot) {
+        var value = value(slot);
+        return value != null && value.isBoolean();
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+}
@@ -0,0 +1,50 @@
+package io.sapl.benchmark.index.inverted;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.interpreter.EvaluationContext;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * An attribute of the subscription, e.g. {@code subject.authorities}, together with how targets compare it to
+ * constants.
+ */
+@Value
+class AttributePath {
+
+    enum Comparison {
+        /**
+         * {@code path == "constant"}
+         */
+        EQUALS,
+        /**
+         * {@code "constant" in path}, the attribute is an array
+         */
+        ELEMENT_OF
+    }
+
+    String root;
+
+    List<String> keys;
+
+    Comparison comparison;
+
+    /**
+     * @return the value of the attribute in the subscription, or null if it is undefined
+     */
+    JsonNode resolve(EvaluationContext subscriptionScopedEvaluationContext) {
+        var variables = subscriptionScopedEvaluationContext.getVariableCtx();
+        JsonNode value = variables.exists(root) ? variables.get(root) : null;
+        for (int i = 0; i < keys.size() && value != null; i++)
+            value = value.get(keys.get(i));
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        var path = keys.isEmpty() ? root : root + '.' + String.join(".", keys);
+        return comparison == Comparison.EQUALS ? path + " ==" : "in " + path;
+    }
+
+}
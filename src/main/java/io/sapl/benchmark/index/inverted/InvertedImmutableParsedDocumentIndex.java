@@ -0,0 +1,257 @@
+package io.sapl.benchmark.index.inverted;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.api.interpreter.Val;
+import io.sapl.benchmark.index.ScratchPool;
+import io.sapl.benchmark.index.inverted.AttributePath.Comparison;
+import io.sapl.grammar.sapl.AuthorizationDecisionEvaluable;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index for targets made of comparisons of subscription attributes to string constants, like the targets of the
+ * structured cases. Postings map each attribute and constant to the clauses requiring it. A retrieval looks up the
+ * values of the indexed attributes of the subscription and counts the hits per clause, a clause holds once all of its
+ * literals are hit. No target expression is evaluated for such clauses.
+ * <p>
+ * Literals that cannot be looked up, e.g. negations or function calls, are evaluated residually: a clause containing
+ * them only makes its document a candidate, whose whole target is then evaluated. Documents with a clause without any
+ * indexed literal, including those without target, are evaluated on every retrieval. An undefined attribute does not
+ * match any constant, comparisons to constants do not fail in the interpreter either.
+ */
+@Slf4j
+public class InvertedImmutableParsedDocumentIndex implements ImmutableParsedDocumentIndex {
+
+    private final EvaluationContext pdpScopedEvaluationContext;
+
+    private final Map<String, InvertedTarget> compiledTargets;
+    private final Map<String, SAPL> residualDocuments;
+
+    private final SAPL[] documents;
+    private final AttributePath[] paths;
+    private final List<Map<JsonNode, int[]>> postings;
+    private final int[] clauseDocuments;
+    private final int[] clauseLiteralCounts;
+    private final boolean[] residualClauses;
+
+    // reused by the retrievals, the hit counts are reset after each retrieval
+    private final ScratchPool<ClauseHits> clauseHits;
+
+    public InvertedImmutableParsedDocumentIndex(EvaluationContext pdpScopedEvaluationContext) {
+        this(pdpScopedEvaluationContext, new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    private InvertedImmutableParsedDocumentIndex(EvaluationContext pdpScopedEvaluationContext,
+                                                 Map<String, InvertedTarget> compiledTargets,
+                                                 Map<String, SAPL> residualDocuments) {
+        this.pdpScopedEvaluationContext = pdpScopedEvaluationContext;
+        this.compiledTargets = compiledTargets;
+        this.residualDocuments = residualDocuments;
+
+        int clauseCount = compiledTargets.values().stream().mapToInt(target -> target.getClauses().size()).sum();
+        this.documents = new SAPL[compiledTargets.size()];
+        this.clauseDocuments = new int[clauseCount];
+        this.clauseLiteralCounts = new int[clauseCount];
+        this.residualClauses = new boolean[clauseCount];
+
+        Map<AttributePath, Map<JsonNode, List<Integer>>> clausesByLiteral = new LinkedHashMap<>();
+        int document = 0;
+        int clause = 0;
+        for (InvertedTarget target : compiledTargets.values()) {
+            documents[document] = target.getDocument();
+            for (InvertedTarget.Clause compiledClause : target.getClauses()) {
+                clauseDocuments[clause] = document;
+                clauseLiteralCounts[clause] = compiledClause.getLiteralCount();
+                residualClauses[clause] = compiledClause.isResidual();
+                for (var literals : compiledClause.getLiterals().entrySet()) {
+                    var constants = clausesByLiteral.computeIfAbsent(literals.getKey(), path -> new HashMap<>());
+                    for (JsonNode constant : literals.getValue())
+                        constants.computeIfAbsent(constant, value -> new ArrayList<>()).add(clause);
+                }
+                clause++;
+            }
+            document++;
+        }
+
+        this.paths = clausesByLiteral.keySet().toArray(new AttributePath[0]);
+        this.postings = new ArrayList<>(paths.length);
+        for (AttributePath path : paths) {
+            Map<JsonNode, int[]> pathPostings = new HashMap<>();
+            clausesByLiteral.get(path).forEach((constant, clauses) -> pathPostings.put(constant,
+                    clauses.stream().mapToInt(Integer::intValue).toArray()));
+            postings.add(pathPostings);
+        }
+
+        this.clauseHits = new ScratchPool<>(() -> new ClauseHits(clauseCount));
+    }
+
+    @Override
+    public Mono<PolicyRetrievalResult> retrievePolicies(EvaluationContext subscriptionScopedEvaluationContext) {
+        var matched = new BitSet(documents.length);
+        var candidates = new BitSet(documents.length);
+        countHits(subscriptionScopedEvaluationContext, matched, candidates);
+        candidates.andNot(matched);
+
+        List<AuthorizationDecisionEvaluable> matches = new ArrayList<>(matched.cardinality());
+        for (int document = matched.nextSetBit(0); document >= 0; document = matched.nextSetBit(document + 1))
+            matches.add(documents[document]);
+
+        if (candidates.isEmpty() && residualDocuments.isEmpty())
+            return Mono.just(new PolicyRetrievalResult(matches, false));
+
+        List<SAPL> evaluatedDocuments = new ArrayList<>(candidates.cardinality() + residualDocuments.size());
+        for (int document = candidates.nextSetBit(0); document >= 0; document = candidates.nextSetBit(document + 1))
+            evaluatedDocuments.add(documents[document]);
+        evaluatedDocuments.addAll(residualDocuments.values());
+
+        return Flux.fromIterable(evaluatedDocuments)
+                .concatMap(document -> document.matches(subscriptionScopedEvaluationContext)
+                        .map(match -> new Evaluation(document, match)))
+                .collectList().map(evaluations -> {
+                    boolean errorsInTarget = false;
+                    for (Evaluation evaluation : evaluations) {
+                        if (evaluation.match.isError())
+                            errorsInTarget = true;
+                        else if (evaluation.match.isBoolean() && evaluation.match.getBoolean())
+                            matches.add(evaluation.document);
+                    }
+                    return new PolicyRetrievalResult(matches, errorsInTarget);
+                });
+    }
+
+    /**
+     * Marks the documents with a clause whose indexed literals all hold, as matched if the clause has no residual
+     * literals and as candidates otherwise.
+     */
+    private void countHits(EvaluationContext subscriptionScopedEvaluationContext, BitSet matched,
+                           BitSet candidates) {
+        var hits = clauseHits.take();
+        try {
+            for (int p = 0; p < paths.length; p++) {
+                var value = paths[p].resolve(subscriptionScopedEvaluationContext);
+                if (value == null)
+                    continue;
+
+                var pathPostings = postings.get(p);
+                if (paths[p].getComparison() == Comparison.EQUALS) {
+                    hit(pathPostings.get(value), hits, matched, candidates);
+                } else if (value.isArray()) {
+                    for (int i = 0; i < value.size(); i++) {
+                        if (isFirstOccurrence(value, i))
+                            hit(pathPostings.get(value.get(i)), hits, matched, candidates);
+                    }
+                }
+            }
+        } finally {
+            hits.reset();
+            clauseHits.release(hits);
+        }
+    }
+
+    private void hit(int[] clauses, ClauseHits hits, BitSet matched, BitSet candidates) {
+        if (clauses == null)
+            return;
+        for (int clause : clauses) {
+            if (hits.increment(clause) == clauseLiteralCounts[clause]) {
+                if (residualClauses[clause])
+                    candidates.set(clauseDocuments[clause]);
+                else
+                    matched.set(clauseDocuments[clause]);
+            }
+        }
+    }
+
+    private static boolean isFirstOccurrence(JsonNode array, int index) {
+        var element = array.get(index);
+        for (int i = 0; i < index; i++) {
+            if (element.equals(array.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ImmutableParsedDocumentIndex apply(PrpUpdateEvent event) {
+        Map<String, InvertedTarget> updatedTargets = new LinkedHashMap<>(compiledTargets);
+        Map<String, SAPL> updatedResidualDocuments = new LinkedHashMap<>(residualDocuments);
+
+        for (Update update : event.getUpdates()) {
+            var name = update.getDocument().getPolicyElement().getSaplName();
+            updatedTargets.remove(name);
+            updatedResidualDocuments.remove(name);
+            if (update.getType() != Type.PUBLISH)
+                continue;
+
+            var target = InvertedTargetCompiler.compile(update.getDocument(), pdpScopedEvaluationContext);
+            if (target != null) {
+                updatedTargets.put(name, target);
+            } else {
+                log.debug("target of {} has a clause without indexed literal, it is evaluated on every retrieval",
+                        name);
+                updatedResidualDocuments.put(name, update.getDocument());
+            }
+        }
+
+        return new InvertedImmutableParsedDocumentIndex(pdpScopedEvaluationContext, updatedTargets,
+                updatedResidualDocuments);
+    }
+
+    public int getCompiledDocumentCount() {
+        return compiledTargets.size();
+    }
+
+    public int getResidualDocumentCount() {
+        return residualDocuments.size();
+    }
+
+    /**
+     * Hits per clause of the current retrieval, with the clauses hit so far, so that only these are reset.
+     */
+    private static final class ClauseHits {
+
+        private final int[] counts;
+        private final int[] touchedClauses;
+        private int touchedCount;
+
+        private ClauseHits(int clauseCount) {
+            counts = new int[clauseCount];
+            touchedClauses = new int[clauseCount];
+        }
+
+        private int increment(int clause) {
+            if (counts[clause] == 0)
+                touchedClauses[touchedCount++] = clause;
+            return ++counts[clause];
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++)
+                counts[touchedClauses[i]] = 0;
+            touchedCount = 0;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Evaluation {
+
+        private final SAPL document;
+        private final Val match;
+    }
+
+}
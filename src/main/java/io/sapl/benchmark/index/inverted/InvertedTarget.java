@@ -0,0 +1,39 @@
+package io.sapl.benchmark.index.inverted;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.grammar.sapl.SAPL;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Target of a document in disjunctive normal form, where every clause is anchored by at least one comparison of an
+ * attribute to a constant.
+ */
+@Value
+class InvertedTarget {
+
+    SAPL document;
+
+    List<Clause> clauses;
+
+    @Value
+    static class Clause {
+
+        /**
+         * Constants every attribute has to be equal to or contain. Each pair is counted once.
+         */
+        Map<AttributePath, Set<JsonNode>> literals;
+
+        int literalCount;
+
+        /**
+         * Whether the clause contains literals that cannot be looked up, so that the target has to be evaluated once
+         * all indexed literals hold.
+         */
+        boolean residual;
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.sapl.benchmark.index.inverted;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.benchmark.index.flat.AttributePaths;
+import io.sapl.benchmark.index.inverted.AttributePath.Comparison;
+import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.ConjunctiveClause;
+import io.sapl.prp.index.canonical.Literal;
+import io.sapl.prp.index.canonical.TreeWalker;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.ecore.EObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles targets into {@link InvertedTarget}s. Comparisons of a subscription attribute to a string constant, i.e.
+ * {@code resource == "…"}, {@code action == "…"} or {@code "…" in subject.authorities} as generated for the
+ * structured cases, become indexed literals. The disjunctive normal form is built by the {@link TreeWalker} of the
+ * canonical index, its literals are mapped back to the comparisons by comparing them to the comparisons of the
+ * target.
+ */
+@Slf4j
+@UtilityClass
+class InvertedTargetCompiler {
+
+    /**
+     * @return the compiled target, or null if the target has no clauses or a clause without any indexed literal, so
+     * that it has to be evaluated on every retrieval
+     */
+    InvertedTarget compile(SAPL document, EvaluationContext pdpScopedEvaluationContext) {
+        Expression targetExpression = document.getPolicyElement().getTargetExpression();
+        if (targetExpression == null)
+            return null;
+
+        try {
+            Map<String, String> imports = document.documentScopedEvaluationContext(pdpScopedEvaluationContext)
+                    .getImports();
+            var comparisons = comparisonsOf(targetExpression, imports);
+            if (comparisons.isEmpty())
+                return null;
+
+            List<InvertedTarget.Clause> clauses = new ArrayList<>();
+            for (ConjunctiveClause clause : TreeWalker.walk(targetExpression, imports).getClauses()) {
+                var compiledClause = compile(clause, comparisons);
+                if (compiledClause.getLiteralCount() == 0)
+                    return null;
+                clauses.add(compiledClause);
+            }
+            return clauses.isEmpty() ? null : new InvertedTarget(document, clauses);
+        } catch (PolicyEvaluationException e) {
+            log.debug("cannot compile the target of {}", document.getPolicyElement().getSaplName(), e);
+            return null;
+        }
+    }
+
+    private InvertedTarget.Clause compile(ConjunctiveClause clause, Map<Bool, ConstantComparison> comparisons) {
+        Map<AttributePath, Set<JsonNode>> literals = new HashMap<>();
+        int literalCount = 0;
+        boolean residual = false;
+        for (Literal literal : clause.getLiterals()) {
+            var comparison = literal.isNegated() ? null : comparisons.get(literal.getBool());
+            if (comparison == null)
+                residual = true;
+            else if (literals.computeIfAbsent(comparison.getPath(), path -> new HashSet<>())
+                    .add(comparison.getConstant()))
+                literalCount++;
+        }
+        return new InvertedTarget.Clause(literals, literalCount, residual);
+    }
+
+    /**
+     * @return every comparison of an attribute to a constant in the target, keyed by the literal the tree walker
+     * creates for it
+     */
+    private Map<Bool, ConstantComparison> comparisonsOf(Expression targetExpression, Map<String, String> imports) {
+        Map<Bool, ConstantComparison> comparisons = new HashMap<>();
+        addComparison(targetExpression, imports, comparisons);
+        targetExpression.eAllContents().forEachRemaining(node -> addComparison(node, imports, comparisons));
+        return comparisons;
+    }
+
+    private void addComparison(EObject node, Map<String, String> imports,
+                               Map<Bool, ConstantComparison> comparisons) {
+        if (!(node instanceof Expression))
+            return;
+        var comparison = comparisonOf(AttributePaths.unwrapped((Expression) node));
+        if (comparison != null)
+            comparisons.put(new Bool((Expression) node, imports), comparison);
+    }
+
+    private ConstantComparison comparisonOf(Expression expression) {
+        if (expression instanceof Equals) {
+            var equals = (Equals) expression;
+            var comparison = comparisonOf(equals.getLeft(), equals.getRight(), Comparison.EQUALS);
+            return comparison != null ? comparison : comparisonOf(equals.getRight(), equals.getLeft(),
+                    Comparison.EQUALS);
+        }
+        if (expression instanceof ElementOf) {
+            var elementOf = (ElementOf) expression;
+            return comparisonOf(elementOf.getRight(), elementOf.getLeft(), Comparison.ELEMENT_OF);
+        }
+        return null;
+    }
+
+    private ConstantComparison comparisonOf(Expression attribute, Expression constant, Comparison comparison) {
+        var path = attributePath(attribute, comparison);
+        var value = AttributePaths.stringConstantOf(constant);
+        return path == null || value == null ? null : new ConstantComparison(path, value);
+    }
+
+    private AttributePath attributePath(Expression expression, Comparison comparison) {
+        var path = AttributePaths.pathOf(expression);
+        return path == null ? null : new AttributePath(path.get(0), List.copyOf(path.subList(1, path.size())),
+                comparison);
+    }
+
+    @Value
+    private static class ConstantComparison {
+
+        AttributePath path;
+
+        JsonNode constant;
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.sapl.benchmark.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Flight recording of a single benchmark case, from policy generation to the last retrieval. Uses the JDK's
+ * "profile" settings, so that method samples and allocations can be related to the benchmark phases in JMC.
+ */
+@Slf4j
+public class CaseFlightRecording implements AutoCloseable {
+
+    private static final String SETTINGS = "profile";
+
+    private final Recording recording;
+    private final Path destination;
+
+    private CaseFlightRecording(Recording recording, Path destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    public static CaseFlightRecording start(String caseName, String resultPath) throws IOException {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(SETTINGS));
+        } catch (ParseException e) {
+            throw new IOException("Could not read JFR settings '" + SETTINGS + "'", e);
+        }
+        recording.setName(caseName);
+        recording.enable(PolicyGenerationEvent.class);
+        recording.enable(IndexConstructionEvent.class);
+        recording.enable(WarmUpEvent.class);
+        recording.enable(RetrievalEvent.class);
+
+        var destination = Path.of(resultPath, caseName.replaceAll("[^a-zA-Z0-9]", "") + ".jfr");
+        recording.start();
+        log.info("started flight recording for case {}", caseName);
+
+        return new CaseFlightRecording(recording, destination);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            recording.stop();
+            recording.dump(destination);
+            log.info("flight recording written to {}", destination);
+        } finally {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.sapl.benchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.sapl.benchmark.IndexConstruction")
+@Label("Index Construction")
+@Category({"SAPL", "Benchmark"})
+public class IndexConstructionEvent extends Event {
+
+    @Label("Case")
+    String caseName;
+
+    @Label("Index Type")
+    String indexType;
+
+    public IndexConstructionEvent(String caseName, String indexType) {
+        this.caseName = caseName;
+        this.indexType = indexType;
+    }
+}
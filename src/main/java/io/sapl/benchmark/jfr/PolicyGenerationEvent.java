@@ -0,0 +1,23 @@
+package io.sapl.benchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.sapl.benchmark.PolicyGeneration")
+@Label("Policy Generation")
+@Category({"SAPL", "Benchmark"})
+public class PolicyGenerationEvent extends Event {
+
+    @Label("Case")
+    String caseName;
+
+    @Label("Benchmark Type")
+    String benchmarkType;
+
+    public PolicyGenerationEvent(String caseName, String benchmarkType) {
+        this.caseName = caseName;
+        this.benchmarkType = benchmarkType;
+    }
+}
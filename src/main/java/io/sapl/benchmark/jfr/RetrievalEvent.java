@@ -0,0 +1,42 @@
+package io.sapl.benchmark.jfr;
+
+import io.sapl.prp.PolicyRetrievalResult;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single timed policy retrieval. The event is started before the allocation measurement of the run, so that the
+ * event object itself is not attributed to the retrieval.
+ */
+@Name("io.sapl.benchmark.Retrieval")
+@Label("Policy Retrieval")
+@Description("Retrieval of the matching documents for a single authorization subscription")
+@Category({"SAPL", "Benchmark"})
+@StackTrace(false)
+public class RetrievalEvent extends Event {
+
+    @Label("Case")
+    String caseName;
+
+    @Label("Matching Documents")
+    int matchCount;
+
+    public static RetrievalEvent start(String caseName) {
+        var event = new RetrievalEvent();
+        event.caseName = caseName;
+        event.begin();
+        return event;
+    }
+
+    public void finish(PolicyRetrievalResult result) {
+        end();
+        if (shouldCommit()) {
+            matchCount = result.getMatchingDocuments().size();
+            commit();
+        }
+    }
+}
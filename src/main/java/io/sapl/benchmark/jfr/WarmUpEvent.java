@@ -0,0 +1,19 @@
+package io.sapl.benchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.sapl.benchmark.WarmUp")
+@Label("Warm-up")
+@Category({"SAPL", "Benchmark"})
+public class WarmUpEvent extends Event {
+
+    @Label("Case")
+    String caseName;
+
+    public WarmUpEvent(String caseName) {
+        this.caseName = caseName;
+    }
+}
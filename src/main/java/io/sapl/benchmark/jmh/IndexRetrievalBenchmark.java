@@ -0,0 +1,125 @@
+package io.sapl.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.benchmark.BenchmarkCase;
+import io.sapl.benchmark.BenchmarkParameters;
+import io.sapl.benchmark.BenchmarkType;
+import io.sapl.benchmark.index.IndexFactory;
+import io.sapl.generator.ConfigurationFactory;
+import io.sapl.generator.GeneratorFactory;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.generator.replay.ReplayCase;
+import io.sapl.interpreter.EvaluationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * JMH state for a single benchmark case. Every combination of the parameters below is set up once per fork: the
+ * policies of the case are generated, loaded into the index and a fixed set of subscriptions is prepared. The
+ * measured method only covers the retrieval itself.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+public class IndexRetrievalBenchmark {
+
+    private static final Map<String, JsonNode> VARIABLES = Collections.emptyMap();
+    private static final AttributeContext ATTRIBUTE_CONTEXT = new AnnotationAttributeContext();
+    private static final FunctionContext FUNCTION_CONTEXT = new AnnotationFunctionContext();
+
+    @Param({""})
+    public String configurationFile;
+
+    @Param({"STRUCTURED_RANDOM"})
+    public String benchmarkType;
+
+    @Param({""})
+    public String caseName;
+
+    @Param({"CANONICAL"})
+    public String indexType;
+
+    @Param({"1000"})
+    public int numberOfSubscriptions;
+
+    private Path policyFolder;
+
+    private boolean temporaryPolicyFolder;
+
+    private ImmutableParsedDocumentIndex index;
+
+    private AuthorizationSubscription[] subscriptions;
+
+    private int nextSubscription;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var parameters = BenchmarkParameters.builder()
+                .benchmarkType(BenchmarkType.valueOf(benchmarkType))
+                .indexType(indexType)
+                .configurationFile(configurationFile)
+                .runsPerCase(numberOfSubscriptions)
+                .build();
+
+        BenchmarkCase benchmarkCase = ConfigurationFactory.parseConfigurationFile(parameters).getCases().stream()
+                .filter(candidate -> caseName.equals(candidate.getName())).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown benchmark case: " + caseName));
+
+        var policyUtil = new PolicyUtil(true, benchmarkCase.getSeed());
+
+        if (benchmarkCase instanceof ReplayCase) {
+            policyFolder = Path.of(((ReplayCase) benchmarkCase).getPolicyFolder());
+        } else {
+            policyFolder = Files.createTempDirectory("sapl-benchmark-jmh-");
+            temporaryPolicyFolder = true;
+            GeneratorFactory.policyGeneratorByType(parameters, benchmarkCase, policyUtil)
+                    .generatePolicies(policyFolder);
+        }
+        benchmarkCase.setPolicyFolderPath(policyFolder);
+
+        index = IndexFactory.indexForDocumentsIn(parameters, policyFolder.toString());
+
+        subscriptions = GeneratorFactory.subscriptionGeneratorByType(parameters, benchmarkCase, policyUtil)
+                .generateSubscriptions(numberOfSubscriptions).toArray(new AuthorizationSubscription[0]);
+        nextSubscription = 0;
+
+        log.info("prepared case={} with index={} and {} subscriptions", caseName, indexType, subscriptions.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (temporaryPolicyFolder)
+            FileUtils.deleteDirectory(policyFolder.toFile());
+    }
+
+    @Benchmark
+    public void retrievePolicies(Blackhole blackhole) {
+        var subscription = subscriptions[nextSubscription];
+        if (++nextSubscription == subscriptions.length)
+            nextSubscription = 0;
+
+        EvaluationContext subscriptionScopedEvaluationCtx = new EvaluationContext(ATTRIBUTE_CONTEXT,
+                FUNCTION_CONTEXT, VARIABLES).forAuthorizationSubscription(subscription);
+        blackhole.consume(index.retrievePolicies(subscriptionScopedEvaluationCtx).block());
+    }
+
+}
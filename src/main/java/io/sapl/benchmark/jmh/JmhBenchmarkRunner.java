@@ -0,0 +1,57 @@
+package io.sapl.benchmark.jmh;
+
+import io.sapl.benchmark.BenchmarkCase;
+import io.sapl.benchmark.BenchmarkParameters;
+import io.sapl.benchmark.results.BenchmarkResultWriter;
+import io.sapl.generator.BenchmarkConfiguration;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Slf4j
+@UtilityClass
+public class JmhBenchmarkRunner {
+
+    /**
+     * Runs all cases against all given indexes, JMH runs every combination of case and index as a separate
+     * benchmark.
+     */
+    public void runBenchmark(BenchmarkParameters parameters, BenchmarkConfiguration<BenchmarkCase> configuration,
+                             List<String> indexTypes) throws RunnerException {
+        String[] caseNames = configuration.getCases().stream().map(BenchmarkCase::getName).toArray(String[]::new);
+
+        var resultFile = Path.of(new BenchmarkResultWriter(parameters).getResultPath(),
+                "jmh-" + String.join("-", indexTypes) + ".csv");
+
+        log.info("running {} cases through JMH, results will be written to {}", caseNames.length, resultFile);
+
+        var options = new OptionsBuilder()
+                .include(Pattern.quote(IndexRetrievalBenchmark.class.getName()))
+                .param("configurationFile", Path.of(parameters.getConfigurationFile()).toAbsolutePath().toString())
+                .param("benchmarkType", parameters.getBenchmarkType().name())
+                .param("caseName", caseNames)
+                .param("indexType", indexTypes.toArray(new String[0]))
+                .param("numberOfSubscriptions", String.valueOf(parameters.getRunsPerCase()))
+                .mode(Mode.Throughput)
+                .mode(Mode.SampleTime)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .forks(parameters.getJmhForks())
+                .warmupIterations(parameters.getJmhWarmupIterations())
+                .measurementIterations(parameters.getJmhMeasurementIterations())
+                .resultFormat(ResultFormatType.CSV)
+                .result(resultFile.toString())
+                .build();
+
+        new Runner(options).run();
+    }
+
+}
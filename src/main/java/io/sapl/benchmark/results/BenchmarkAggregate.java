@@ -15,6 +15,36 @@ public class BenchmarkAggregate {
 
     double mdn;
 
+    double p99;
+
+    double p999;
+
+    double iterationMdnMean;
+
+    double iterationMdnStdDev;
+
+    double iterationMdnCiLower;
+
+    double iterationMdnCiUpper;
+
+    double throughput;
+
+    long pinningEvents;
+
+    double avgAllocatedBytes;
+
+    double mdnAllocatedBytes;
+
+    double maxAllocatedBytes;
+
+    long gcCount;
+
+    long gcTimeMillis;
+
+    long compilationTimeMillis;
+
+    long heapAfterGcBytes;
+
     long seed;
 
     int policyCount;
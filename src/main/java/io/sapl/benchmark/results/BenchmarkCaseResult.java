@@ -0,0 +1,171 @@
+package io.sapl.benchmark.results;
+
+import lombok.Data;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Data
+public class BenchmarkCaseResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Retrievals slower than this are recorded with this value, so that the histogram has a fixed size.
+     */
+    public static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Retrievals allocating more than this are recorded with this value.
+     */
+    public static final long HIGHEST_TRACKABLE_BYTES = 1L << 30;
+
+    private static final int SIGNIFICANT_VALUE_DIGITS = 3;
+
+    final String name;
+
+    /**
+     * Every n-th run is additionally kept as a detailed {@link BenchmarkRecord}. 0 disables detailed records.
+     */
+    final int sampleInterval;
+
+    double timePreparation;
+
+    /**
+     * Operations per second over the wall-clock time of the whole measurement, summed over all threads.
+     */
+    double throughput;
+
+    Histogram latencies = newLatencyHistogram();
+
+    /**
+     * Bytes allocated by the retrieving thread per retrieval. Empty in modes where a retrieval may change threads.
+     */
+    Histogram allocations = newAllocationHistogram();
+
+    /**
+     * Time spent inside the retrieval only, without queueing delay. Only recorded by the open-loop mode, where
+     * {@link #latencies} contains the response time measured from the intended start.
+     */
+    Histogram serviceTimes;
+
+    /**
+     * Time between handing a subscription to the scheduler and the start of its retrieval on a worker thread.
+     * Only recorded by the reactive mode.
+     */
+    Histogram handOffTimes;
+
+    /**
+     * Number of jdk.VirtualThreadPinned events during the measurement. Only recorded by the virtual thread mode.
+     */
+    long pinningEvents;
+
+    /**
+     * Time to apply an update event, by number of documents in the event. Only recorded by the update mode.
+     */
+    Map<Integer, Histogram> updateLatencies = new LinkedHashMap<>();
+
+    /**
+     * GC and JIT activity during the measurement, excluding index construction and warm-up.
+     */
+    JvmActivity jvmActivity = JvmActivity.none();
+
+    List<BenchmarkRecord> records = new LinkedList<>();
+
+    List<BenchmarkThreadRecord> threadRecords = new LinkedList<>();
+
+    /**
+     * Hits, evictions and size of the retrieval cache per iteration. Only recorded for the cached index types.
+     */
+    List<CacheRecord> cacheRecords = new ArrayList<>();
+
+    /**
+     * Cost of flattening subscriptions against the path walks it saves, measured once per case after the iterations.
+     * Only recorded if the flattening analysis is enabled.
+     */
+    List<FlatteningRecord> flatteningRecords = new ArrayList<>();
+
+    /**
+     * Median latency of every iteration, each measured on a freshly built index.
+     */
+    List<Double> iterationMedians = new ArrayList<>();
+
+    List<Double> iterationThroughputs = new ArrayList<>();
+
+    /**
+     * Merges the result of one iteration into this case. Histograms are combined, records are renumbered to follow
+     * the runs of the previous iterations, preparation time and throughput are averaged over the iterations.
+     */
+    public void addIteration(BenchmarkCaseResult iteration) {
+        int runOffset = (int) latencies.getTotalCount();
+        int previousIterations = iterationMedians.size();
+
+        iterationMedians.add((double) iteration.getLatencies().getValueAtPercentile(50.0D));
+        iterationThroughputs.add(iteration.getThroughput());
+
+        timePreparation = (timePreparation * previousIterations + iteration.getTimePreparation())
+                / (previousIterations + 1);
+        throughput = iterationThroughputs.stream().mapToDouble(Double::doubleValue).average().orElse(0D);
+
+        latencies.add(iteration.getLatencies());
+        allocations.add(iteration.getAllocations());
+        serviceTimes = merged(serviceTimes, iteration.getServiceTimes());
+        handOffTimes = merged(handOffTimes, iteration.getHandOffTimes());
+        pinningEvents += iteration.getPinningEvents();
+        iteration.getUpdateLatencies().forEach((deltaSize, histogram) -> updateLatencies.put(deltaSize,
+                merged(updateLatencies.get(deltaSize), histogram)));
+        jvmActivity = previousIterations == 0 ? iteration.getJvmActivity()
+                : jvmActivity.followedBy(iteration.getJvmActivity());
+
+        for (BenchmarkRecord record : iteration.getRecords())
+            records.add(record.withNumber(runOffset + record.getNumber()));
+        threadRecords.addAll(iteration.getThreadRecords());
+        for (CacheRecord cacheRecord : iteration.getCacheRecords())
+            cacheRecords.add(cacheRecord.withIteration(previousIterations));
+    }
+
+    public IterationStatistics getIterationStatistics() {
+        return IterationStatistics.of(iterationMedians);
+    }
+
+    private static Histogram merged(Histogram total, Histogram iteration) {
+        if (iteration == null)
+            return total;
+        if (total == null)
+            return iteration.copy();
+        total.add(iteration);
+        return total;
+    }
+
+    public boolean isSampled(int run) {
+        return sampleInterval > 0 && run % sampleInterval == 0;
+    }
+
+    public static Histogram newLatencyHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_VALUE_DIGITS);
+    }
+
+    public static Histogram newAllocationHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_BYTES, SIGNIFICANT_VALUE_DIGITS);
+    }
+
+    public static Histogram newConcurrentLatencyHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_VALUE_DIGITS);
+    }
+
+    public static void recordLatency(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(Math.max(nanos, 0L), HIGHEST_TRACKABLE_NANOS));
+    }
+
+    public static void recordAllocation(Histogram histogram, long bytes) {
+        if (bytes >= 0L)
+            histogram.recordValue(Math.min(bytes, HIGHEST_TRACKABLE_BYTES));
+    }
+}
@@ -1,10 +1,16 @@
 package io.sapl.benchmark.results;
 
 import lombok.Value;
+import lombok.With;
+
+import java.io.Serializable;
 
 @Value
-public class BenchmarkRecord {
+public class BenchmarkRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
+    @With
     int number;
 
     String name;
@@ -13,6 +19,8 @@ public class BenchmarkRecord {
 
     double timeDuration;
 
+    long allocatedBytes;
+
     String request;
 
     String numberOfMatchingPolicies;
@@ -2,7 +2,6 @@ package io.sapl.benchmark.results;
 
 import io.sapl.benchmark.BenchmarkParameters;
 import io.sapl.generator.PolicyCharacteristics;
-import io.sapl.benchmark.index.IndexType;
 import lombok.Data;
 
 import java.util.LinkedList;
@@ -16,7 +15,7 @@ public class BenchmarkResultContainer {
     final long benchmarkTimestamp;
     final String runtimeInfo;
 
-    final IndexType indexType;
+    final String indexType;
     final int runs;
     final int iterations;
 
@@ -25,12 +24,35 @@ public class BenchmarkResultContainer {
     List<Double> maxValues = new LinkedList<>();
     List<Double> avgValues = new LinkedList<>();
     List<Double> mdnValues = new LinkedList<>();
+    List<Double> p99Values = new LinkedList<>();
+    List<Double> p999Values = new LinkedList<>();
+    List<IterationStatistics> iterationStatistics = new LinkedList<>();
+    List<Double> throughputValues = new LinkedList<>();
+    List<Long> pinningEvents = new LinkedList<>();
+    List<Double> avgAllocatedBytes = new LinkedList<>();
+    List<Double> mdnAllocatedBytes = new LinkedList<>();
+    List<Double> maxAllocatedBytes = new LinkedList<>();
+    List<JvmActivity> jvmActivities = new LinkedList<>();
     List<String> identifier = new LinkedList<>();
     List<PolicyCharacteristics> characteristics = new LinkedList<>();
     List<Long> seeds = new LinkedList<>();
 
     List<BenchmarkAggregate> aggregateData = new LinkedList<>();
 
+    List<BenchmarkThreadRecord> threadData = new LinkedList<>();
+
+    List<GcEvent> gcEvents = new LinkedList<>();
+
+    List<BuildRecord> buildData = new LinkedList<>();
+
+    List<ParseScalingRecord> parseScalingData = new LinkedList<>();
+
+    List<UpdateRecord> updateData = new LinkedList<>();
+
+    List<CacheRecord> cacheData = new LinkedList<>();
+
+    List<FlatteningRecord> flatteningData = new LinkedList<>();
+
 
     public BenchmarkResultContainer(BenchmarkParameters configuration) {
         this.benchmarkId = UUID.randomUUID().toString();
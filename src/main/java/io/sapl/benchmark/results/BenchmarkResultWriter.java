@@ -4,30 +4,35 @@ import com.google.common.base.Strings;
 import io.sapl.benchmark.BenchmarkCase;
 import io.sapl.benchmark.BenchmarkParameters;
 import io.sapl.benchmark.BenchmarkType;
-import io.sapl.benchmark.index.IndexType;
 import io.sapl.generator.PolicyCharacteristics;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
 import org.jxls.template.SimpleExporter;
 import org.knowm.xchart.BitmapEncoder;
 import org.knowm.xchart.BitmapEncoder.BitmapFormat;
 import org.knowm.xchart.CategoryChart;
 import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
+import org.knowm.xchart.style.markers.SeriesMarkers;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,13 +42,22 @@ public class BenchmarkResultWriter {
     private static final int DEFAULT_WIDTH = 1920;
 
     private static final double REMOVE_EDGE_DATA_BY_PERCENTAGE = 0.005D;
+    private static final double EDGE_PERCENTILE = REMOVE_EDGE_DATA_BY_PERCENTAGE * 100.0D;
+    private static final double MILLION = 1000000.0D;
 
     private static final String ERROR_WRITING_BITMAP = "Error writing bitmap";
-    public static final String EXPORT_PROPERTIES = "number, name, timePreparation, timeDuration, request, numberOfMatchingPolicies, matchingPolicyNames";
-    private static final String EXPORT_PROPERTIES_AGGREGATES = "name, min, max, avg, mdn, seed, policyCount, variableCount, runs, iterations";
+    public static final String EXPORT_PROPERTIES = "number, name, timePreparation, timeDuration, allocatedBytes, request, numberOfMatchingPolicies, matchingPolicyNames";
+    private static final String EXPORT_PROPERTIES_AGGREGATES = "name, min, max, avg, mdn, p99, p999, iterationMdnMean, iterationMdnStdDev, iterationMdnCiLower, iterationMdnCiUpper, throughput, pinningEvents, avgAllocatedBytes, mdnAllocatedBytes, maxAllocatedBytes, gcCount, gcTimeMillis, compilationTimeMillis, heapAfterGcBytes, seed, policyCount, variableCount, runs, iterations";
+    private static final String EXPORT_PROPERTIES_THREADS = "name, thread, runs, min, max, avg, mdn, throughput";
+    private static final String EXPORT_PROPERTIES_BUILD = "name, iteration, documentCount, timeParsing, timeConstruction, parsedDocumentsBytes, indexBytes, indexOverheadBytes";
+    private static final String EXPORT_PROPERTIES_PARSE_SCALING = "name, threads, documentCount, repetitions, timeParsing, documentsPerSecond, speedup";
+    private static final String EXPORT_PROPERTIES_UPDATES = "name, deltaSize, updates, min, mdn, p99, max, mdnPerDocument";
+    private static final String EXPORT_PROPERTIES_CACHE = "name, iteration, eviction, maximumSize, hits, misses, hitRatio, evictions, invalidatedEntries, entries, retainedBytes";
+    private static final String EXPORT_PROPERTIES_FLATTENING = "name, slots, compiledDocuments, residualDocuments, runs, mdnFlattening, p99Flattening, mdnFlatRetrieval, mdnFlattenedTotal, mdnPathWalkingRetrieval, mdnNetSaved, flatteningShare";
+    private static final String EXPORT_PROPERTIES_GC_EVENTS = "name, offsetMillis, collector, action, cause, durationMillis";
 
     private final String resultPath;
-    private final IndexType indexType;
+    private final String indexType;
 
     private final XYChart overviewChart = new XYChart(DEFAULT_WIDTH, DEFAULT_HEIGHT);
 
@@ -70,22 +84,95 @@ public class BenchmarkResultWriter {
         }
     }
 
+    public String getResultPath() {
+        return resultPath;
+    }
+
     public void writeFinalResults(BenchmarkResultContainer resultContainer) {
         log.info("writing charts and results to {}", resultPath);
 
-        writeOverviewChart(overviewChart);
+        if (!overviewChart.getSeriesMap().isEmpty())
+            writeOverviewChart(overviewChart);
         writeOverviewExcel(resultContainer.getData());
 
 
         buildAggregateData(resultContainer);
         writeHistogramChart(resultContainer);
         writeHistogramExcel(resultContainer.getAggregateData());
+        writeThreadExcel(resultContainer.getThreadData());
+        writeGcEventExcel(resultContainer.getGcEvents());
+        if (!resultContainer.getUpdateData().isEmpty())
+            writeUpdateExcel(resultContainer.getUpdateData());
+        if (!resultContainer.getCacheData().isEmpty())
+            writeCacheExcel(resultContainer.getCacheData());
+        if (!resultContainer.getFlatteningData().isEmpty())
+            writeFlatteningExcel(resultContainer.getFlatteningData());
         appendHistogramToCSVFile(resultContainer.getAggregateData(), resultPath);
     }
 
-    public void writeDetailsChart(List<BenchmarkRecord> results, double[] times, String configName) {
+    public void writeBuildResults(BenchmarkResultContainer resultContainer) {
+        log.info("writing build results to {}", resultPath);
+
+        var data = resultContainer.getBuildData();
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "build-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderBuild(), data, EXPORT_PROPERTIES_BUILD, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+
+        try (FileWriter fw = new FileWriter(resultPath + "build_summary.csv", Charset.defaultCharset(), true);
+             BufferedWriter bw = new BufferedWriter(fw);
+             PrintWriter out = new PrintWriter(bw)) {
+
+            for (BuildRecord dat : data) {
+                // indextype, name, iteration, documents, parsing, construction, parsed bytes, index bytes
+                out.printf("%s,\t %s;\t %d;\t %d;\t %.2f;\t %.2f;\t %d;\t %d;\t %s", indexType, dat.getName(),
+                        dat.getIteration(), dat.getDocumentCount(), dat.getTimeParsing(), dat.getTimeConstruction(),
+                        dat.getParsedDocumentsBytes(), dat.getIndexBytes(), System.lineSeparator());
+            }
+        } catch (IOException e) {
+            log.error("Error appending to  CSV", e);
+            System.exit(1);
+        }
+
+        if (!resultContainer.getParseScalingData().isEmpty())
+            writeParseScalingResults(resultContainer.getParseScalingData());
+    }
+
+    private void writeParseScalingResults(List<ParseScalingRecord> data) {
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "parse-scaling-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderParseScaling(), data, EXPORT_PROPERTIES_PARSE_SCALING, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+
+        XYChart chart = new XYChart(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+        chart.setTitle("Parse Throughput");
+        chart.setXAxisTitle("Threads");
+        chart.setYAxisTitle("documents/s");
+        data.stream().collect(Collectors.groupingBy(ParseScalingRecord::getName, LinkedHashMap::new,
+                Collectors.toList())).forEach((caseName, records) -> chart.addSeries(caseName,
+                records.stream().mapToDouble(ParseScalingRecord::getThreads).toArray(),
+                records.stream().mapToDouble(ParseScalingRecord::getDocumentsPerSecond).toArray()));
+
+        try {
+            BitmapEncoder.saveBitmap(chart, resultPath + "parse-scaling-" + indexType, BitmapFormat.PNG);
+        } catch (IOException e) {
+            log.error(ERROR_WRITING_BITMAP, e);
+            System.exit(1);
+        }
+    }
+
+    public void writeDetailsChart(List<BenchmarkRecord> results, double[] times, String configName,
+                                  BenchmarkCaseResult caseResult) {
+        double[] runs = new double[results.size()];
         int i = 0;
         for (BenchmarkRecord item : results) {
+            runs[i] = item.getNumber();
             times[i] = item.getTimeDuration();
             i++;
         }
@@ -93,18 +180,43 @@ public class BenchmarkResultWriter {
         XYChart details = new XYChart(DEFAULT_WIDTH, DEFAULT_HEIGHT);
         details.setTitle("Evaluation Time");
         details.setXAxisTitle("Run");
-        details.setYAxisTitle("ms");
-        details.addSeries(configName, times);
+        details.setYAxisTitle("ns");
+        details.addSeries(configName, runs, times);
+        addGcEventSeries(details, caseResult);
 
         try {
-            BitmapEncoder.saveBitmap(details, resultPath + configName
-                    .replaceAll("[^a-zA-Z0-9]", ""), BitmapFormat.PNG);
+            BitmapEncoder.saveBitmap(details, caseFilePrefix(configName), BitmapFormat.PNG);
         } catch (IOException e) {
             log.error(ERROR_WRITING_BITMAP, e);
             System.exit(1);
         }
     }
 
+    /**
+     * Marks the collections during the measurement with their pause time. Collections are only known by time, so
+     * they are placed at the run that was due at that point, assuming runs were spread evenly over the measurement.
+     */
+    private void addGcEventSeries(XYChart details, BenchmarkCaseResult caseResult) {
+        var jvmActivity = caseResult.getJvmActivity();
+        var gcEvents = jvmActivity.getGcEvents();
+        if (gcEvents.isEmpty() || jvmActivity.getMeasurementMillis() <= 0L)
+            return;
+
+        long totalRuns = caseResult.getLatencies().getTotalCount();
+        double[] runs = new double[gcEvents.size()];
+        double[] pauses = new double[gcEvents.size()];
+        for (int i = 0; i < gcEvents.size(); i++) {
+            var gcEvent = gcEvents.get(i);
+            double position = (double) gcEvent.getOffsetMillis() / jvmActivity.getMeasurementMillis();
+            runs[i] = Math.min(Math.max(position, 0.0D), 1.0D) * totalRuns;
+            pauses[i] = gcEvent.getDurationMillis() * MILLION;
+        }
+
+        var series = details.addSeries("GC", runs, pauses);
+        series.setXYSeriesRenderStyle(XYSeriesRenderStyle.Scatter);
+        series.setMarker(SeriesMarkers.DIAMOND);
+    }
+
     public void addSeriesToOverviewChart(double[] times, String seriesName) {
         overviewChart.addSeries(seriesName, times);
     }
@@ -117,11 +229,15 @@ public class BenchmarkResultWriter {
              PrintWriter out = new PrintWriter(bw)) {
 
             for (BenchmarkAggregate dat : aggregateRecords) {
-                // indextype, name, seed, policies, variables, min, max, avg, mdn
-                out.printf("%s,\t %s;\t %s;\t %d;\t %d;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %s",
+                // indextype, name, seed, policies, variables, min, max, avg, mdn, p99, p999, throughput,
+                // mean, std. dev. and 95% CI of the iteration medians, avg allocation, max allocation
+                out.printf("%s,\t %s;\t %s;\t %d;\t %d;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %.2f;\t %s",
                         indexType, dat.getName(),
                         dat.getSeed(), dat.getPolicyCount(), dat.getVariableCount(), dat.getMin(), dat.getMax(),
-                        dat.getAvg(), dat.getMdn(), System.lineSeparator());
+                        dat.getAvg(), dat.getMdn(), dat.getP99(), dat.getP999(), dat.getThroughput(),
+                        dat.getIterationMdnMean(), dat.getIterationMdnStdDev(), dat.getIterationMdnCiLower(),
+                        dat.getIterationMdnCiUpper(),
+                        dat.getAvgAllocatedBytes(), dat.getMaxAllocatedBytes(), System.lineSeparator());
             }
         } catch (IOException e) {
             log.error("Error appending to  CSV", e);
@@ -151,6 +267,7 @@ public class BenchmarkResultWriter {
         histogram.addSeries("max", resultContainer.getIdentifier(), resultContainer.getMaxValues());
         histogram.addSeries("avg", resultContainer.getIdentifier(), resultContainer.getAvgValues());
         histogram.addSeries("mdn", resultContainer.getIdentifier(), resultContainer.getMdnValues());
+        histogram.addSeries("p99", resultContainer.getIdentifier(), resultContainer.getP99Values());
 
         try {
             BitmapEncoder.saveBitmap(histogram, resultPath + "histogram-" + indexType, BitmapFormat.PNG);
@@ -160,6 +277,26 @@ public class BenchmarkResultWriter {
         }
     }
 
+    /**
+     * Writes the median latency of every case side by side for all indexes that were benchmarked together. Requires
+     * the aggregates of the containers, i.e. {@link #writeFinalResults} has been called for each of them.
+     */
+    public static void writeIndexComparison(String resultPath, Map<String, BenchmarkResultContainer> containers) {
+        CategoryChart comparison = new CategoryChart(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+        comparison.setTitle("Median by Index");
+        comparison.setXAxisTitle("Case");
+        comparison.setYAxisTitle("ms");
+        containers.forEach((index, container) -> comparison.addSeries(index, container.getIdentifier(),
+                container.getMdnValues()));
+
+        try {
+            BitmapEncoder.saveBitmap(comparison, resultPath + "index-comparison", BitmapFormat.PNG);
+        } catch (IOException e) {
+            log.error(ERROR_WRITING_BITMAP, e);
+            System.exit(1);
+        }
+    }
+
     private void writeOverviewExcel(List<BenchmarkRecord> data) {
         try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "overview-" + indexType + ".xls"))) {
             SimpleExporter exp = new SimpleExporter();
@@ -180,9 +317,61 @@ public class BenchmarkResultWriter {
         }
     }
 
+    private void writeThreadExcel(List<BenchmarkThreadRecord> data) {
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "threads-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderThreads(), data, EXPORT_PROPERTIES_THREADS, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+    }
+
+    private void writeGcEventExcel(List<GcEvent> data) {
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "gc-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderGcEvents(), data, EXPORT_PROPERTIES_GC_EVENTS, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+    }
+
+    private void writeUpdateExcel(List<UpdateRecord> data) {
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "updates-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderUpdates(), data, EXPORT_PROPERTIES_UPDATES, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+    }
+
+    private void writeCacheExcel(List<CacheRecord> data) {
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "cache-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderCache(), data, EXPORT_PROPERTIES_CACHE, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+    }
+
+    private void writeFlatteningExcel(List<FlatteningRecord> data) {
+        try (OutputStream os = Files.newOutputStream(Paths.get(resultPath, "flattening-" + indexType + ".xls"))) {
+            SimpleExporter exp = new SimpleExporter();
+            exp.gridExport(getExportHeaderFlattening(), data, EXPORT_PROPERTIES_FLATTENING, os);
+        } catch (IOException e) {
+            log.error("Error writing XLS", e);
+            System.exit(1);
+        }
+    }
+
     private void buildAggregateData(BenchmarkResultContainer resultContainer) {
         for (int i = 0; i < resultContainer.getIdentifier().size(); i++) {
             PolicyCharacteristics characteristics = resultContainer.getCharacteristics().get(i);
+            JvmActivity jvmActivity = resultContainer.getJvmActivities().get(i);
+            IterationStatistics iterationStatistics = resultContainer.getIterationStatistics().get(i);
             resultContainer.getAggregateData()
                     .add(new BenchmarkAggregate(
                             resultContainer.getIdentifier().get(i), //name
@@ -190,6 +379,21 @@ public class BenchmarkResultWriter {
                             resultContainer.getMaxValues().get(i),  //max
                             resultContainer.getAvgValues().get(i),  //avg
                             resultContainer.getMdnValues().get(i),  //mdn
+                            resultContainer.getP99Values().get(i),
+                            resultContainer.getP999Values().get(i),
+                            iterationStatistics.getMean(),
+                            iterationStatistics.getStdDev(),
+                            iterationStatistics.getCiLower(),
+                            iterationStatistics.getCiUpper(),
+                            resultContainer.getThroughputValues().get(i),
+                            resultContainer.getPinningEvents().get(i),
+                            resultContainer.getAvgAllocatedBytes().get(i),
+                            resultContainer.getMdnAllocatedBytes().get(i),
+                            resultContainer.getMaxAllocatedBytes().get(i),
+                            jvmActivity.getGcCount(),
+                            jvmActivity.getGcTimeMillis(),
+                            jvmActivity.getCompilationTimeMillis(),
+                            jvmActivity.getHeapAfterGcBytes(),
                             resultContainer.getSeeds().get(i),
                             characteristics.getPolicyCount(),
                             characteristics.getVariablePoolCount(),
@@ -200,83 +404,125 @@ public class BenchmarkResultWriter {
     }
 
     private List<String> getExportHeader() {
-        return Arrays.asList("Iteration", "Test Case", "Preparation Time (ns)", "Execution Time (ns)", "Request String",
+        return Arrays.asList("Iteration", "Test Case", "Preparation Time (ns)", "Execution Time (ns)", "Allocation (bytes)",
+                "Request String",
                 "Number of Matching Policies", "Matching Policy Names");
     }
 
     private List<String> getExportHeaderAggregates() {
         return Arrays.asList("Test Case", "Minimum Time (ns)", "Maximum Time (ns)", "Average Time (ns)",
-                "Median Time (ns)", "Seed", "Policy Count", "Variable Count", "Runs", "Iterations");
+                "Median Time (ns)", "99th Percentile (ns)", "99.9th Percentile (ns)", "Mean of Iteration Medians (ns)",
+                "Std. Dev. of Iteration Medians (ns)", "95% CI Lower (ns)", "95% CI Upper (ns)", "Throughput (ops/s)",
+                "Carrier Pinning Events", "Average Allocation (bytes)", "Median Allocation (bytes)",
+                "Maximum Allocation (bytes)", "GC Count", "GC Time (ms)", "JIT Compilation Time (ms)",
+                "Heap After GC (bytes)", "Seed", "Policy Count", "Variable Count", "Runs", "Iterations");
     }
 
+    private List<String> getExportHeaderThreads() {
+        return Arrays.asList("Test Case", "Thread", "Runs", "Minimum Time (ns)", "Maximum Time (ns)",
+                "Average Time (ns)", "Median Time (ns)", "Throughput (ops/s)");
+    }
 
-    private void sanitizeResults(List<BenchmarkRecord> results) {
-        int numberOfDataToRemove = (int) (results.size() * REMOVE_EDGE_DATA_BY_PERCENTAGE);
+    private List<String> getExportHeaderBuild() {
+        return Arrays.asList("Test Case", "Iteration", "Documents", "Parsing Time (ns)", "Construction Time (ns)",
+                "Parsed Documents (bytes)", "Index incl. Documents (bytes)", "Index Overhead (bytes)");
+    }
 
-        for (int i = 0; i < numberOfDataToRemove; i++) {
-            results.stream().min(Comparator.comparingDouble(BenchmarkRecord::getTimeDuration))
-                    .ifPresent(results::remove);
+    private List<String> getExportHeaderParseScaling() {
+        return Arrays.asList("Test Case", "Threads", "Documents", "Repetitions", "Median Parsing Time (ns)",
+                "Documents per Second", "Speedup");
+    }
 
-            results.stream().max(Comparator.comparingDouble(BenchmarkRecord::getTimeDuration))
-                    .ifPresent(results::remove);
-        }
+    private List<String> getExportHeaderCache() {
+        return Arrays.asList("Test Case", "Iteration", "Eviction", "Maximum Size", "Hits", "Misses", "Hit Ratio",
+                "Evictions", "Invalidated Entries", "Entries", "Retained Heap (bytes)");
+    }
+
+    private List<String> getExportHeaderFlattening() {
+        return Arrays.asList("Test Case", "Attribute Slots", "Compiled Documents", "Residual Documents", "Runs",
+                "Median Flattening (ns)", "99th Percentile Flattening (ns)", "Median Flat Retrieval (ns)",
+                "Median Flattening + Flat Retrieval (ns)", "Median Path Walking Retrieval (ns)",
+                "Median Net Saved (ns)", "Flattening / Path Walks");
     }
 
+    private List<String> getExportHeaderUpdates() {
+        return Arrays.asList("Test Case", "Delta Size", "Updates", "Minimum Time (ns)", "Median Time (ns)",
+                "99th Percentile (ns)", "Maximum Time (ns)", "Median Time per Document (ns)");
+    }
+
+    private List<String> getExportHeaderGcEvents() {
+        return Arrays.asList("Test Case", "Offset (ms)", "Collector", "Action", "Cause", "Duration (ms)");
+    }
+
+
     public void addResultsForCaseToContainer(BenchmarkResultContainer resultContainer,
-                                             BenchmarkCase benchmarkCase, List<BenchmarkRecord> results, PolicyCharacteristics characteristics) {
-        sanitizeResults(results);
+                                             BenchmarkCase benchmarkCase, BenchmarkCaseResult caseResult, PolicyCharacteristics characteristics) {
+        Histogram latencies = caseResult.getLatencies();
 
         resultContainer.getIdentifier().add(benchmarkCase.getName());
-        resultContainer.getMinValues().add(extractMin(results));
-        resultContainer.getMaxValues().add(extractMax(results));
-        resultContainer.getAvgValues().add(extractAvg(results));
-        resultContainer.getMdnValues().add(extractMdn(results));
-        resultContainer.getData().addAll(results);
+        // the outermost edges of the distribution are cut off, as single outliers would dominate min and max
+        resultContainer.getMinValues().add((double) latencies.getValueAtPercentile(EDGE_PERCENTILE));
+        resultContainer.getMaxValues().add((double) latencies.getValueAtPercentile(100.0D - EDGE_PERCENTILE));
+        resultContainer.getAvgValues().add(latencies.getMean());
+        resultContainer.getMdnValues().add((double) latencies.getValueAtPercentile(50.0D));
+        resultContainer.getP99Values().add((double) latencies.getValueAtPercentile(99.0D));
+        resultContainer.getP999Values().add((double) latencies.getValueAtPercentile(99.9D));
+        resultContainer.getIterationStatistics().add(caseResult.getIterationStatistics());
+        resultContainer.getThroughputValues().add(caseResult.getThroughput());
+        resultContainer.getPinningEvents().add(caseResult.getPinningEvents());
+        Histogram allocations = caseResult.getAllocations();
+        resultContainer.getAvgAllocatedBytes().add(allocations.getMean());
+        resultContainer.getMdnAllocatedBytes().add((double) allocations.getValueAtPercentile(50.0D));
+        resultContainer.getMaxAllocatedBytes().add((double) allocations.getMaxValue());
+        resultContainer.getJvmActivities().add(caseResult.getJvmActivity());
+        resultContainer.getGcEvents().addAll(caseResult.getJvmActivity().getGcEvents());
+        resultContainer.getData().addAll(caseResult.getRecords());
+        caseResult.getUpdateLatencies().forEach((deltaSize, updateLatencies) -> resultContainer.getUpdateData()
+                .add(new UpdateRecord(benchmarkCase.getName(), deltaSize, updateLatencies.getTotalCount(),
+                        updateLatencies.getMinValue(), updateLatencies.getValueAtPercentile(50.0D),
+                        updateLatencies.getValueAtPercentile(99.0D), updateLatencies.getMaxValue(),
+                        (double) updateLatencies.getValueAtPercentile(50.0D) / deltaSize)));
+        resultContainer.getThreadData().addAll(caseResult.getThreadRecords());
+        resultContainer.getCacheData().addAll(caseResult.getCacheRecords());
+        resultContainer.getFlatteningData().addAll(caseResult.getFlatteningRecords());
 
         resultContainer.getSeeds().add(benchmarkCase.getSeed());
 
         resultContainer.getCharacteristics().add(characteristics);
     }
 
-    private double extractMin(Iterable<BenchmarkRecord> data) {
-        double min = Double.MAX_VALUE;
-        for (BenchmarkRecord item : data) {
-            if (item.getTimeDuration() < min) {
-                min = item.getTimeDuration();
-            }
-        }
-        return min;
-    }
+    public void writeLatencyDistribution(BenchmarkCaseResult caseResult) {
+        var fileName = caseFilePrefix(caseResult.getName());
+        writeDistribution(caseResult.getLatencies(), fileName + ".hgrm");
 
-    private double extractMax(Iterable<BenchmarkRecord> data) {
-        double max = Double.MIN_VALUE;
-        for (BenchmarkRecord item : data) {
-            if (item.getTimeDuration() > max) {
-                max = item.getTimeDuration();
-            }
-        }
-        return max;
+        if (caseResult.getServiceTimes() != null)
+            writeDistribution(caseResult.getServiceTimes(), fileName + "-service.hgrm");
+
+        if (caseResult.getHandOffTimes() != null)
+            writeDistribution(caseResult.getHandOffTimes(), fileName + "-handoff.hgrm");
+
+        caseResult.getUpdateLatencies().forEach((deltaSize, updateLatencies) ->
+                writeDistribution(updateLatencies, fileName + "-update-" + deltaSize + ".hgrm"));
     }
 
-    private double extractAvg(Collection<BenchmarkRecord> data) {
-        double sum = 0;
-        for (BenchmarkRecord item : data) {
-            sum += item.getTimeDuration();
+    private void writeDistribution(Histogram histogram, String fileName) {
+        try (PrintStream out = new PrintStream(new FileOutputStream(fileName), false, StandardCharsets.UTF_8)) {
+            // values are recorded in ns, the distribution is written in ms
+            histogram.outputPercentileDistribution(out, MILLION);
+        } catch (IOException e) {
+            log.error("Error writing latency distribution", e);
+            System.exit(1);
         }
-        return sum / data.size();
     }
 
-    private double extractMdn(Collection<BenchmarkRecord> data) {
-        List<Double> list = data.stream().map(BenchmarkRecord::getTimeDuration).sorted().collect(Collectors.toList());
-        int index = list.size() / 2;
-        if (list.size() % 2 == 0) {
-            return (list.get(index) + list.get(index - 1)) / 2;
-        } else {
-            return list.get(index);
-        }
+    /**
+     * Files of a case are named after the case and the index, the results of several indexes share a directory.
+     */
+    private String caseFilePrefix(String caseName) {
+        return resultPath + caseName.replaceAll("[^a-zA-Z0-9]", "") + "-" + indexType;
     }
 
-    public String generateFilePrefix(IndexType indexType, BenchmarkType benchmarkType) {
+    public static String generateFilePrefix(String indexType, BenchmarkType benchmarkType) {
         return String.format("%s_%s_%s%s", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME), indexType,
                 benchmarkType, File.separator).replace(':', '-');
     }
@@ -0,0 +1,27 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+@Value
+public class BenchmarkThreadRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String name;
+
+    int thread;
+
+    int runs;
+
+    double min;
+
+    double max;
+
+    double avg;
+
+    double mdn;
+
+    double throughput;
+}
@@ -0,0 +1,42 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+@Value
+public class BuildRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String name;
+
+    int iteration;
+
+    int documentCount;
+
+    /**
+     * Reading and parsing the documents into the initial update event, in ns.
+     */
+    double timeParsing;
+
+    /**
+     * Applying the initial update event to an empty index, in ns.
+     */
+    double timeConstruction;
+
+    /**
+     * Heap retained by the parsed documents alone.
+     */
+    long parsedDocumentsBytes;
+
+    /**
+     * Heap retained by the index, including the parsed documents it references.
+     */
+    long indexBytes;
+
+    /**
+     * Heap retained by the index structures on top of the parsed documents.
+     */
+    long indexOverheadBytes;
+}
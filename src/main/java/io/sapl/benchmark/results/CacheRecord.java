@@ -0,0 +1,41 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+import lombok.With;
+
+import java.io.Serializable;
+
+@Value
+public class CacheRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String name;
+
+    @With
+    int iteration;
+
+    String eviction;
+
+    int maximumSize;
+
+    long hits;
+
+    long misses;
+
+    double hitRatio;
+
+    long evictions;
+
+    /**
+     * Entries dropped because updates invalidated the cache, only in the update mode.
+     */
+    long invalidatedEntries;
+
+    long entries;
+
+    /**
+     * Difference of the used heap after full collections with the filled and the cleared cache.
+     */
+    long retainedBytes;
+}
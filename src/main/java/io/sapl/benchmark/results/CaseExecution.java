@@ -0,0 +1,32 @@
+package io.sapl.benchmark.results;
+
+import io.sapl.generator.PolicyCharacteristics;
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Everything a single case contributes to the results. Serializable, so that a case can be run in a child JVM and
+ * merged by the parent.
+ */
+@Value
+public class CaseExecution implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String caseName;
+
+    String indexType;
+
+    PolicyCharacteristics characteristics;
+
+    /**
+     * Result of the retrieval benchmark, null in BUILD mode.
+     */
+    BenchmarkCaseResult caseResult;
+
+    List<BuildRecord> buildRecords;
+
+    List<ParseScalingRecord> parseScalingRecords;
+}
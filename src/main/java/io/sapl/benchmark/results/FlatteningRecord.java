@@ -0,0 +1,54 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+@Value
+public class FlatteningRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String name;
+
+    /**
+     * Number of distinct attribute paths read by the compiled targets, i.e. the size of a flattened subscription.
+     */
+    int slots;
+
+    int compiledDocuments;
+
+    int residualDocuments;
+
+    long runs;
+
+    double mdnFlattening;
+
+    double p99Flattening;
+
+    /**
+     * Median retrieval from an already flattened subscription, without the flattening itself.
+     */
+    double mdnFlatRetrieval;
+
+    /**
+     * Median of flattening and retrieving from the flattened subscription, measured per run.
+     */
+    double mdnFlattenedTotal;
+
+    /**
+     * Median retrieval with the same compiled targets, but every literal walking its path through the JSON tree.
+     */
+    double mdnPathWalkingRetrieval;
+
+    /**
+     * Median path walking retrieval minus median flattened total, the net time saved by flattening.
+     */
+    double mdnNetSaved;
+
+    /**
+     * Median flattening relative to the time the path walks cost, i.e. median path walking minus median flat
+     * retrieval. Below 1 the flattening pays off.
+     */
+    double flatteningShare;
+}
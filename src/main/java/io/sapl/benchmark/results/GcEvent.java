@@ -0,0 +1,26 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+@Value
+public class GcEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String name;
+
+    /**
+     * Start of the collection relative to the start of the measurement.
+     */
+    long offsetMillis;
+
+    String collector;
+
+    String action;
+
+    String cause;
+
+    long durationMillis;
+}
@@ -0,0 +1,50 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Spread of the per-iteration medians of a case. The confidence interval uses Student's t-distribution, as the
+ * number of iterations is usually small.
+ */
+@Value
+public class IterationStatistics {
+
+    /**
+     * Two-sided 95% quantiles of the t-distribution for 1 to 30 degrees of freedom.
+     */
+    private static final double[] T_95 = {12.706D, 4.303D, 3.182D, 2.776D, 2.571D, 2.447D, 2.365D, 2.306D, 2.262D,
+            2.228D, 2.201D, 2.179D, 2.160D, 2.145D, 2.131D, 2.120D, 2.110D, 2.101D, 2.093D, 2.086D, 2.080D, 2.074D,
+            2.069D, 2.064D, 2.060D, 2.056D, 2.052D, 2.048D, 2.045D, 2.042D};
+    private static final double Z_95 = 1.960D;
+
+    int iterations;
+
+    double mean;
+
+    double stdDev;
+
+    double ciLower;
+
+    double ciUpper;
+
+    public static IterationStatistics of(List<Double> values) {
+        int n = values.size();
+        if (n == 0)
+            return new IterationStatistics(0, 0D, 0D, 0D, 0D);
+
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0D);
+        if (n == 1)
+            return new IterationStatistics(1, mean, 0D, mean, mean);
+
+        double sumOfSquares = values.stream().mapToDouble(value -> (value - mean) * (value - mean)).sum();
+        double stdDev = Math.sqrt(sumOfSquares / (n - 1));
+
+        int degreesOfFreedom = n - 1;
+        double t = degreesOfFreedom <= T_95.length ? T_95[degreesOfFreedom - 1] : Z_95;
+        double halfWidth = t * stdDev / Math.sqrt(n);
+
+        return new IterationStatistics(n, mean, stdDev, mean - halfWidth, mean + halfWidth);
+    }
+}
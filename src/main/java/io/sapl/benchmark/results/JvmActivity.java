@@ -0,0 +1,50 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GC and JIT activity of the JVM during the measurement of a single case.
+ */
+@Value
+public class JvmActivity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    long measurementMillis;
+
+    long gcCount;
+
+    long gcTimeMillis;
+
+    long compilationTimeMillis;
+
+    /**
+     * Sum of the heap pools' usage after their most recent collection, at the end of the measurement.
+     */
+    long heapAfterGcBytes;
+
+    List<GcEvent> gcEvents;
+
+    /**
+     * Combines the activity of two consecutive measurements. The events of the second one are shifted by the
+     * duration of the first, so that offsets stay relative to the start of the first measurement.
+     */
+    public JvmActivity followedBy(JvmActivity next) {
+        List<GcEvent> events = new ArrayList<>(gcEvents);
+        for (GcEvent event : next.getGcEvents()) {
+            events.add(new GcEvent(event.getName(), measurementMillis + event.getOffsetMillis(),
+                    event.getCollector(), event.getAction(), event.getCause(), event.getDurationMillis()));
+        }
+        return new JvmActivity(measurementMillis + next.getMeasurementMillis(), gcCount + next.getGcCount(),
+                gcTimeMillis + next.getGcTimeMillis(), compilationTimeMillis + next.getCompilationTimeMillis(),
+                next.getHeapAfterGcBytes(), events);
+    }
+
+    public static JvmActivity none() {
+        return new JvmActivity(0L, 0L, 0L, 0L, 0L, List.of());
+    }
+}
@@ -0,0 +1,31 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+@Value
+public class ParseScalingRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    String name;
+
+    int threads;
+
+    int documentCount;
+
+    int repetitions;
+
+    /**
+     * Median of parsing all documents of the case over the repetitions, in ns.
+     */
+    double timeParsing;
+
+    double documentsPerSecond;
+
+    /**
+     * Throughput relative to parsing on a single thread.
+     */
+    double speedup;
+}
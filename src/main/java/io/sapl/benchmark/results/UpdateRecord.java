@@ -0,0 +1,27 @@
+package io.sapl.benchmark.results;
+
+import lombok.Value;
+
+@Value
+public class UpdateRecord {
+
+    String name;
+
+    int deltaSize;
+
+    long updates;
+
+    double min;
+
+    double mdn;
+
+    double p99;
+
+    double max;
+
+    /**
+     * Median update time divided by the delta size. Constant for updates in O(delta), growing with the delta size
+     * where updates are dominated by a rebuild.
+     */
+    double mdnPerDocument;
+}
@@ -0,0 +1,77 @@
+package io.sapl.benchmark.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the number of bytes allocated by the current thread from the HotSpot specific
+ * {@link com.sun.management.ThreadMXBean}. The bytes allocated by the measurement itself are determined once and
+ * subtracted from every reading.
+ */
+@Slf4j
+@UtilityClass
+public class AllocationMeter {
+
+    public static final long UNSUPPORTED = -1L;
+
+    private static final int CALIBRATION_ROUNDS = 1000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = initThreadMXBean();
+
+    private static final long MEASUREMENT_OVERHEAD = calibrate();
+
+    /**
+     * @return the bytes allocated by the current thread so far, or {@link #UNSUPPORTED}
+     */
+    public long allocatedBytes() {
+        if (THREAD_MX_BEAN == null)
+            return UNSUPPORTED;
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @param before a value previously returned by {@link #allocatedBytes()} on the same thread
+     * @return the bytes allocated by the current thread in between, or {@link #UNSUPPORTED}
+     */
+    public long allocatedBytesSince(long before) {
+        long after = allocatedBytes();
+        if (before < 0L || after < 0L)
+            return UNSUPPORTED;
+        return Math.max(0L, after - before - MEASUREMENT_OVERHEAD);
+    }
+
+    private static com.sun.management.ThreadMXBean initThreadMXBean() {
+        var threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            log.warn("allocation measurement is not supported by this JVM");
+            return null;
+        }
+
+        var hotSpotThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (!hotSpotThreadMXBean.isThreadAllocatedMemorySupported()) {
+            log.warn("allocation measurement is not supported by this JVM");
+            return null;
+        }
+        if (!hotSpotThreadMXBean.isThreadAllocatedMemoryEnabled())
+            hotSpotThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        return hotSpotThreadMXBean;
+    }
+
+    private static long calibrate() {
+        if (THREAD_MX_BEAN == null)
+            return 0L;
+
+        long overhead = Long.MAX_VALUE;
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            long after = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, after - before);
+        }
+        log.debug("allocation measurement overhead: {} bytes", overhead);
+        return overhead;
+    }
+}
@@ -0,0 +1,35 @@
+package io.sapl.benchmark.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Approximates the live heap by requesting full collections until the used heap stops shrinking. The difference of
+ * two readings is the heap retained by whatever became reachable in between. This relies on {@link System#gc()}
+ * triggering a full, stop-the-world collection, so it is meaningless with -XX:+DisableExplicitGC or
+ * -XX:+ExplicitGCInvokesConcurrent.
+ */
+@Slf4j
+@UtilityClass
+public class HeapMeter {
+
+    private static final int MAX_COLLECTIONS = 10;
+
+    private static final MemoryMXBean MEMORY_MX_BEAN = ManagementFactory.getMemoryMXBean();
+
+    public long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_COLLECTIONS; i++) {
+            System.gc();
+            long current = MEMORY_MX_BEAN.getHeapMemoryUsage().getUsed();
+            if (current >= used)
+                break;
+            used = current;
+        }
+        log.debug("used heap after gc: {} bytes", used);
+        return used;
+    }
+}
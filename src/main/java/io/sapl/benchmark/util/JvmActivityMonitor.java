@@ -0,0 +1,109 @@
+package io.sapl.benchmark.util;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.sapl.benchmark.results.GcEvent;
+import io.sapl.benchmark.results.JvmActivity;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Captures the GC and JIT activity between {@link #start(String)} and {@link #stop()} from the platform MXBeans.
+ * Individual collections are received as GC notifications, so that they can be related to the runs of the case.
+ */
+@Slf4j
+public class JvmActivityMonitor implements NotificationListener {
+
+    private final String caseName;
+    private final long startUptimeMillis;
+    private final long startGcCount;
+    private final long startGcTimeMillis;
+    private final long startCompilationTimeMillis;
+
+    private final List<GcEvent> gcEvents = Collections.synchronizedList(new ArrayList<>());
+
+    private JvmActivityMonitor(String caseName) {
+        this.caseName = caseName;
+        this.startUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        this.startGcCount = totalGcCount();
+        this.startGcTimeMillis = totalGcTimeMillis();
+        this.startCompilationTimeMillis = totalCompilationTimeMillis();
+    }
+
+    public static JvmActivityMonitor start(String caseName) {
+        var monitor = new JvmActivityMonitor(caseName);
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter)
+                ((NotificationEmitter) gcBean).addNotificationListener(monitor, null, null);
+        }
+        return monitor;
+    }
+
+    public JvmActivity stop() {
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gcBean).removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    log.debug("GC listener was not registered at {}", gcBean.getName());
+                }
+            }
+        }
+
+        List<GcEvent> events;
+        synchronized (gcEvents) {
+            events = List.copyOf(gcEvents);
+        }
+
+        return new JvmActivity(ManagementFactory.getRuntimeMXBean().getUptime() - startUptimeMillis,
+                totalGcCount() - startGcCount, totalGcTimeMillis() - startGcTimeMillis,
+                totalCompilationTimeMillis() - startCompilationTimeMillis, heapAfterGcBytes(), events);
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+            return;
+
+        var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        gcEvents.add(new GcEvent(caseName, info.getGcInfo().getStartTime() - startUptimeMillis, info.getGcName(),
+                info.getGcAction(), info.getGcCause(), info.getGcInfo().getDuration()));
+    }
+
+    private static long totalGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(count -> count > 0L).sum();
+    }
+
+    private static long totalGcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(time -> time > 0L).sum();
+    }
+
+    private static long totalCompilationTimeMillis() {
+        var compilationBean = ManagementFactory.getCompilationMXBean();
+        if (compilationBean == null || !compilationBean.isCompilationTimeMonitoringSupported())
+            return 0L;
+        return compilationBean.getTotalCompilationTime();
+    }
+
+    private static long heapAfterGcBytes() {
+        long used = 0L;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null)
+                used += pool.getCollectionUsage().getUsed();
+        }
+        return used;
+    }
+}
@@ -4,8 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.sapl.benchmark.BenchmarkCase;
 import io.sapl.benchmark.BenchmarkParameters;
-import io.sapl.benchmark.BenchmarkType;
 import io.sapl.generator.random.FullyRandomBenchmarkConfguration;
+import io.sapl.generator.replay.ReplayBenchmarkConfiguration;
 import io.sapl.generator.structured.StructuredRandomBenchmarkConfguration;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -19,9 +19,19 @@ public class ConfigurationFactory {
     private ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
 
     public BenchmarkConfiguration<BenchmarkCase> parseConfigurationFile(BenchmarkParameters parameters) throws Exception {
-        var configurationFileClass = parameters.getBenchmarkType() == BenchmarkType.FULLY_RANDOM
-                ? FullyRandomBenchmarkConfguration.class
-                : StructuredRandomBenchmarkConfguration.class;
+        Class<?> configurationFileClass;
+        switch (parameters.getBenchmarkType()) {
+            case FULLY_RANDOM:
+                configurationFileClass = FullyRandomBenchmarkConfguration.class;
+                break;
+            case REPLAY:
+                configurationFileClass = ReplayBenchmarkConfiguration.class;
+                break;
+            case STRUCTURED_RANDOM:
+                //fall through
+            default:
+                configurationFileClass = StructuredRandomBenchmarkConfguration.class;
+        }
 
         BenchmarkConfiguration<BenchmarkCase> configuration = (BenchmarkConfiguration<BenchmarkCase>) mapper
                 .readValue(new File(parameters.getConfigurationFile()), configurationFileClass);
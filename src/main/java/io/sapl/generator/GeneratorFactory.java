@@ -6,6 +6,8 @@ import io.sapl.domain.model.DomainDataContainer;
 import io.sapl.generator.random.FullyRandomCase;
 import io.sapl.generator.random.FullyRandomPolicyGenerator;
 import io.sapl.generator.random.FullyRandomSubscriptionGenerator;
+import io.sapl.generator.replay.ReplayCase;
+import io.sapl.generator.replay.ReplaySubscriptionGenerator;
 import io.sapl.generator.structured.StructuredRandomCase;
 import io.sapl.generator.structured.StructuredRandomPolicyGenerator;
 import io.sapl.generator.structured.StructuredRandomSubscriptionGenerator;
@@ -24,6 +26,9 @@ public class GeneratorFactory {
             case FULLY_RANDOM:
 
                 return new FullyRandomPolicyGenerator((FullyRandomCase) benchmarkCase, policyUtil);
+            case REPLAY:
+                throw new IllegalStateException(
+                        "Replay cases are benchmarked against their policy folder, no policies are generated");
             case STRUCTURED_RANDOM:
                 //fall through
             default:
@@ -41,12 +46,13 @@ public class GeneratorFactory {
             case FULLY_RANDOM:
                 var randomCase = (FullyRandomCase) benchmarkCase;
                 return new FullyRandomSubscriptionGenerator(policyUtil, randomCase);
+            case REPLAY:
+                return new ReplaySubscriptionGenerator((ReplayCase) benchmarkCase, policyUtil);
             case STRUCTURED_RANDOM:
                 //fall through
             default:
                 var structuredCase = (StructuredRandomCase) benchmarkCase;
-                return new StructuredRandomSubscriptionGenerator(domainDataContainer, structuredCase
-                        .getProbabilityEmptySubscriptionNode(), structuredCase.getProbabilityEmptySubscription());
+                return new StructuredRandomSubscriptionGenerator(domainDataContainer, structuredCase);
         }
     }
 
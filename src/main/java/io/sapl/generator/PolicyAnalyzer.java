@@ -23,6 +23,9 @@ import io.sapl.interpreter.EvaluationContext;
 import io.sapl.interpreter.SAPLInterpreter;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
 import io.sapl.prp.index.canonical.Bool;
 import io.sapl.prp.index.canonical.ConjunctiveClause;
 import io.sapl.prp.index.canonical.DisjunctiveFormula;
@@ -51,6 +54,7 @@ public class PolicyAnalyzer {
 
     //    private final DomainDataContainer domainDataContainer;
     private final Path policyPath;
+    private final PrpUpdateEvent updateEvent;
 
     private final Map<String, SAPL> parsedDocuments = new HashMap<>();
     private final Map<String, SAPL> publishedDocuments = new HashMap<>();
@@ -59,11 +63,26 @@ public class PolicyAnalyzer {
     public PolicyAnalyzer(Path policyPath) {
         //        this.domainDataContainer = domainDataContainer;
         this.policyPath = policyPath;
+        this.updateEvent = null;
+    }
+
+    /**
+     * Analyzes documents that have already been parsed, e.g. by the in-memory policy source, without parsing them
+     * again.
+     */
+    public PolicyAnalyzer(PrpUpdateEvent updateEvent) {
+        this.policyPath = null;
+        this.updateEvent = updateEvent;
     }
 
     public PolicyCharacteristics analyzeSaplDocuments() {
-        log.info("analyzing policies in directory {}", policyPath);
-        parseDocuments();
+        if (updateEvent != null) {
+            log.info("analyzing {} parsed policies", updateEvent.getUpdates().length);
+            collectParsedDocuments();
+        } else {
+            log.info("analyzing policies in directory {}", policyPath);
+            parseDocuments();
+        }
 
         splitDocumentAndTargets();
 
@@ -105,6 +124,13 @@ public class PolicyAnalyzer {
         }
     }
 
+    private void collectParsedDocuments() {
+        for (Update update : updateEvent.getUpdates()) {
+            if (update.getType() == Type.PUBLISH)
+                parsedDocuments.put(update.getDocument().getPolicyElement().getSaplName(), update.getDocument());
+        }
+    }
+
     private long countVariableForSingleTarget(DisjunctiveFormula formula) {
         return formula.getClauses().stream().flatMap(clause -> clause.getLiterals().stream()).map(Literal::getBool)
                 .count();
@@ -0,0 +1,154 @@
+package io.sapl.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sapl.benchmark.BenchmarkCase;
+import io.sapl.benchmark.BenchmarkType;
+import io.sapl.domain.model.DomainPolicy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk cache of generated policy sets. A set is identified by a hash of everything its generation depends on:
+ * the benchmark type, the case configuration including its seed, the state of the dice and the global name counters
+ * when generation starts. Besides the policies, the state of the dice and the counters after generation are stored,
+ * so that a cache hit leaves the generator in the same state as a generation would, and the subscriptions generated
+ * afterwards are identical.
+ * <p>
+ * Only the policy texts are cached. Parsed documents are EMF object trees bound to their Xtext resource, so they are
+ * parsed again on every run.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PolicyCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".policies";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path cacheDirectory;
+
+    public List<DomainPolicy> policiesFor(BenchmarkType benchmarkType, BenchmarkCase benchmarkCase,
+                                          PolicyGenerator generator, PolicyUtil policyUtil) throws IOException {
+        var cacheFile = cacheDirectory.resolve(cacheKey(benchmarkType, benchmarkCase, policyUtil) + FILE_EXTENSION);
+
+        if (Files.isRegularFile(cacheFile)) {
+            log.info("loading cached policies of case {} from {}", benchmarkCase.getName(), cacheFile);
+            return read(cacheFile, policyUtil);
+        }
+
+        var policies = generator.generatePolicies();
+        write(cacheFile, policies, policyUtil);
+        log.info("cached {} policies of case {} in {}", policies.size(), benchmarkCase.getName(), cacheFile);
+        return policies;
+    }
+
+    private static String cacheKey(BenchmarkType benchmarkType, BenchmarkCase benchmarkCase, PolicyUtil policyUtil)
+            throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(FORMAT_VERSION).array());
+        digest.update(benchmarkType.name().getBytes(StandardCharsets.UTF_8));
+        digest.update(benchmarkCase.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        digest.update(MAPPER.writeValueAsBytes(benchmarkCase));
+        digest.update(policyUtil.diceState());
+        for (int counter : PolicyUtil.counterState())
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(counter).array());
+
+        var key = new StringBuilder();
+        for (byte b : digest.digest())
+            key.append(String.format("%02x", b));
+        return key.toString();
+    }
+
+    private static void write(Path cacheFile, List<DomainPolicy> policies, PolicyUtil policyUtil) throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+        var tempFile = Files.createTempFile(cacheFile.getParent(), "sapl-benchmark-", ".tmp");
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+
+            var diceState = policyUtil.diceState();
+            out.writeInt(diceState.length);
+            out.write(diceState);
+
+            var counterState = PolicyUtil.counterState();
+            out.writeInt(counterState.length);
+            for (int counter : counterState)
+                out.writeInt(counter);
+
+            out.writeInt(policies.size());
+            for (DomainPolicy policy : policies) {
+                writeString(out, policy.getPolicyName());
+                writeString(out, policy.getPolicyContent());
+                writeString(out, policy.getFileName());
+            }
+        }
+
+        // concurrent runs either see a complete file or none
+        Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<DomainPolicy> read(Path cacheFile, PolicyUtil policyUtil) throws IOException {
+        try (var channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("policy cache file exceeds 2GB: " + cacheFile);
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION)
+                throw new IOException("unsupported policy cache format " + formatVersion + ": " + cacheFile);
+
+            var diceState = new byte[buffer.getInt()];
+            buffer.get(diceState);
+
+            var counterState = new int[buffer.getInt()];
+            for (int i = 0; i < counterState.length; i++)
+                counterState[i] = buffer.getInt();
+
+            int numberOfPolicies = buffer.getInt();
+            List<DomainPolicy> policies = new ArrayList<>(numberOfPolicies);
+            for (int i = 0; i < numberOfPolicies; i++)
+                policies.add(new DomainPolicy(readString(buffer), readString(buffer), readString(buffer)));
+
+            policyUtil.restoreDice(diceState);
+            PolicyUtil.restoreCounters(counterState);
+
+            return policies;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -3,9 +3,13 @@ package io.sapl.generator;
 import lombok.Builder;
 import lombok.Data;
 
+import java.io.Serializable;
+
 @Data
 @Builder
-public class PolicyCharacteristics {
+public class PolicyCharacteristics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private int policyCount;
 
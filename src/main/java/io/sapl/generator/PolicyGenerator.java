@@ -1,10 +1,15 @@
 package io.sapl.generator;
 
+import io.sapl.domain.model.DomainPolicy;
+
 import java.nio.file.Path;
+import java.util.List;
 
 public interface PolicyGenerator {
 
     void generatePolicies(Path policyFolder) throws Exception;
 
+    List<DomainPolicy> generatePolicies();
+
 
 }
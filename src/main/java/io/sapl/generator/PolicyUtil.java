@@ -22,9 +22,13 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
@@ -146,6 +150,40 @@ public class PolicyUtil {
         this.dice = new Random(seed);
     }
 
+    /**
+     * @return the serialized state of the dice, from which {@link #restoreDice(byte[])} continues the same sequence
+     */
+    public byte[] diceState() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(dice);
+        }
+        return bytes.toByteArray();
+    }
+
+    public void restoreDice(byte[] diceState) throws IOException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(diceState))) {
+            this.dice = (Random) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("invalid dice state", e);
+        }
+    }
+
+    /**
+     * The global counters are part of generated names, so they are part of the state a generated policy set depends
+     * on.
+     */
+    public static int[] counterState() {
+        return new int[]{policyCounter.get(), roleCounter.get(), resourceCounter.get(), appendixCounter.get()};
+    }
+
+    public static void restoreCounters(int[] counterState) {
+        policyCounter.set(counterState[0]);
+        roleCounter.set(counterState[1]);
+        resourceCounter.set(counterState[2]);
+        appendixCounter.set(counterState[3]);
+    }
+
     public double roll() {
         return dice.nextDouble();
     }
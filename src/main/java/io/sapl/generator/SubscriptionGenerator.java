@@ -11,6 +11,14 @@ public interface SubscriptionGenerator {
 
     List<AuthorizationSubscription> generateSubscriptions(int numberOfSubscriptions);
 
+    /**
+     * Whether the order of the generated subscriptions is part of the workload, e.g. because subscriptions repeat
+     * recent ones. Ordered subscriptions are retrieved one after the other instead of being drawn at random.
+     */
+    default boolean isOrdered() {
+        return false;
+    }
+
     static AuthorizationSubscription createEmptySubscription() {
         JsonNode emptyNode = JsonNodeFactory.instance.objectNode();
         return createSubscription(emptyNode, emptyNode, emptyNode);
@@ -15,18 +15,20 @@
  */
 package io.sapl.generator.random;
 
+import io.sapl.domain.model.DomainPolicy;
 import io.sapl.generator.PolicyGenerator;
 import io.sapl.generator.PolicyUtil;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Slf4j
@@ -41,19 +43,28 @@ public class FullyRandomPolicyGenerator implements PolicyGenerator {
     @Override
     public void generatePolicies(Path folder) throws FileNotFoundException, UnsupportedEncodingException {
         log.info("Generate {} polices in folder: {}", testcase.getPolicyCount(), folder);
-        for (int i = 0; i < testcase.getPolicyCount(); i++) {
-            String name = "p_" + i;
-            var filename = folder + File.pathSeparator + name + ".sapl";
+        for (DomainPolicy policy : generatePolicies()) {
+            var filename = folder.resolve(policy.getFileName() + ".sapl").toString();
             log.trace("write policy to: {}", filename);
-            var policy = generatePolicyString(name);
-            log.trace("policy: {}", policy);
             try (PrintWriter writer = new PrintWriter(filename, StandardCharsets.UTF_8.name())) {
-                writer.println(policy);
+                writer.println(policy.getPolicyContent());
             }
         }
 
     }
 
+    @Override
+    public List<DomainPolicy> generatePolicies() {
+        List<DomainPolicy> policies = new ArrayList<>(testcase.getPolicyCount());
+        for (int i = 0; i < testcase.getPolicyCount(); i++) {
+            String name = "p_" + i;
+            var policy = generatePolicyString(name);
+            log.trace("policy: {}", policy);
+            policies.add(new DomainPolicy(name, policy, name));
+        }
+        return policies;
+    }
+
     private String generatePolicyString(String name) {
         final int numberOfVariables = testcase.getLogicalVariableCount();
         final int numberOfConnectors = numberOfVariables - 1;
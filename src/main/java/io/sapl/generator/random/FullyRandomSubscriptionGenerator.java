@@ -9,9 +9,9 @@ import io.sapl.generator.SubscriptionGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 
 @Slf4j
@@ -23,7 +23,7 @@ public class FullyRandomSubscriptionGenerator implements SubscriptionGenerator {
 
     @Override
     public List<AuthorizationSubscription> generateSubscriptions(int numberOfSubscriptions) {
-        List<AuthorizationSubscription> subscriptions = new LinkedList<>();
+        List<AuthorizationSubscription> subscriptions = new ArrayList<>(numberOfSubscriptions);
         for (int i = 0; i < numberOfSubscriptions; i++) {
             AuthorizationSubscription sub = createFullyRandomSubscription();
 
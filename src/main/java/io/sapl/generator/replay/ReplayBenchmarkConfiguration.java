@@ -0,0 +1,19 @@
+package io.sapl.generator.replay;
+
+import io.sapl.generator.BenchmarkConfiguration;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReplayBenchmarkConfiguration extends BenchmarkConfiguration<ReplayCase> {
+
+    private String benchmarkIdentifier;
+
+    private List<ReplayCase> cases;
+
+}
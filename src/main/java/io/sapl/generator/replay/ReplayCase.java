@@ -0,0 +1,28 @@
+package io.sapl.generator.replay;
+
+import io.sapl.benchmark.BenchmarkCase;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A case benchmarking a policy folder supplied by the user against captured subscriptions. Nothing is generated,
+ * and the policy folder is never modified or deleted.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayCase extends BenchmarkCase {
+
+    String policyFolder;
+
+    /**
+     * JSON lines file with one captured subscription per line, see {@link ReplaySubscriptionGenerator}.
+     */
+    String subscriptionFile;
+
+}
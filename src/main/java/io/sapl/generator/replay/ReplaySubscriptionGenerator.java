@@ -0,0 +1,146 @@
+package io.sapl.generator.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.generator.PolicyUtil;
+import io.sapl.generator.SubscriptionGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Samples subscriptions from a JSON lines file of captured production traffic. A line is either a subscription
+ * <pre>{"subject": ..., "action": ..., "resource": ..., "environment": ...}</pre>
+ * or a subscription with the rate it was observed at
+ * <pre>{"subscription": {"subject": ..., ...}, "weight": 12.5}</pre>
+ * Lines without weight count as 1. Each of the requested subscriptions is drawn independently with a probability
+ * proportional to the weight of its line, so the sample reproduces the frequency distribution of the capture.
+ * <p>
+ * The file is streamed twice, once to sum up the weights and once to pick the drawn lines. Only the sample itself is
+ * kept in memory, regardless of the size of the capture.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplaySubscriptionGenerator implements SubscriptionGenerator {
+
+    private static final String SUBSCRIPTION = "subscription";
+    private static final String WEIGHT = "weight";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path subscriptionFile;
+    private final PolicyUtil policyUtil;
+
+    public ReplaySubscriptionGenerator(ReplayCase replayCase, PolicyUtil policyUtil) {
+        this(Path.of(replayCase.getSubscriptionFile()), policyUtil);
+    }
+
+    @Override
+    public List<AuthorizationSubscription> generateSubscriptions(int numberOfSubscriptions) {
+        try {
+            double totalWeight = totalWeight();
+            if (totalWeight <= 0D)
+                throw new IllegalStateException("No subscriptions found in " + subscriptionFile);
+
+            // positions on the cumulative weight of the file, in file order
+            double[] positions = new double[numberOfSubscriptions];
+            for (int i = 0; i < numberOfSubscriptions; i++)
+                positions[i] = policyUtil.roll() * totalWeight;
+            Arrays.sort(positions);
+
+            List<AuthorizationSubscription> subscriptions = sample(positions);
+            shuffle(subscriptions);
+
+            log.info("sampled {} subscriptions from {} (total weight {})", subscriptions.size(), subscriptionFile,
+                    totalWeight);
+            return subscriptions;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read subscriptions from " + subscriptionFile, e);
+        }
+    }
+
+    private double totalWeight() throws IOException {
+        double totalWeight = 0D;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(subscriptionFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank())
+                    totalWeight += weightOf(mapper.readTree(line), lineNumber);
+            }
+        }
+        return totalWeight;
+    }
+
+    private List<AuthorizationSubscription> sample(double[] positions) throws IOException {
+        List<AuthorizationSubscription> subscriptions = new ArrayList<>(positions.length);
+        double cumulativeWeight = 0D;
+        int next = 0;
+        int lineNumber = 0;
+        AuthorizationSubscription subscription = null;
+        try (BufferedReader reader = Files.newBufferedReader(subscriptionFile, StandardCharsets.UTF_8)) {
+            String line;
+            while (next < positions.length && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank())
+                    continue;
+
+                var node = mapper.readTree(line);
+                cumulativeWeight += weightOf(node, lineNumber);
+                if (positions[next] >= cumulativeWeight)
+                    continue;
+
+                // identical lines are drawn as the same instance, the index does not modify subscriptions
+                subscription = subscriptionOf(node);
+                while (next < positions.length && positions[next] < cumulativeWeight) {
+                    subscriptions.add(subscription);
+                    next++;
+                }
+            }
+        }
+        // rounding of the summed weights may leave positions right at the end of the file
+        while (subscriptions.size() < positions.length)
+            subscriptions.add(subscription);
+        return subscriptions;
+    }
+
+    private void shuffle(List<AuthorizationSubscription> subscriptions) {
+        for (int i = subscriptions.size() - 1; i > 0; i--)
+            Collections.swap(subscriptions, i, policyUtil.roll(i + 1));
+    }
+
+    private static double weightOf(JsonNode node, int lineNumber) {
+        if (!node.has(WEIGHT))
+            return 1D;
+
+        double weight = node.get(WEIGHT).asDouble(-1D);
+        if (!(weight >= 0D) || Double.isInfinite(weight))
+            throw new IllegalStateException("Invalid weight in line " + lineNumber + ": " + node.get(WEIGHT));
+        return weight;
+    }
+
+    private static AuthorizationSubscription subscriptionOf(JsonNode node) {
+        var subscription = node.has(SUBSCRIPTION) ? node.get(SUBSCRIPTION) : node;
+        return new AuthorizationSubscription(field(subscription, "subject"), field(subscription, "action"),
+                field(subscription, "resource"), field(subscription, "environment"));
+    }
+
+    private static JsonNode field(JsonNode subscription, String name) {
+        var value = subscription.get(name);
+        return value == null ? NullNode.getInstance() : value;
+    }
+
+}
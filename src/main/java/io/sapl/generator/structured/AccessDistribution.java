@@ -0,0 +1,24 @@
+package io.sapl.generator.structured;
+
+/**
+ * How the subjects, actions and resources of generated subscriptions are drawn from the domain.
+ */
+public enum AccessDistribution {
+
+    /**
+     * Every element is equally likely.
+     */
+    UNIFORM,
+
+    /**
+     * The element of rank k is drawn with a probability proportional to 1/k^s, s being the Zipf exponent. Elements
+     * are ranked in the order the domain generated them.
+     */
+    ZIPF,
+
+    /**
+     * A fixed fraction of the elements, the hot set, receives a fixed share of the draws. Draws within the hot set
+     * and within the remaining elements are uniform.
+     */
+    HOT_SET
+}
@@ -0,0 +1,72 @@
+package io.sapl.generator.structured;
+
+import io.sapl.generator.PolicyUtil;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws elements of the domain lists according to the {@link AccessDistribution} of a case. Uniform draws take
+ * exactly one roll of the dice, like {@link PolicyUtil#getRandomElement(List)}, so that unskewed cases keep
+ * generating the same subscriptions for the same seed.
+ */
+@RequiredArgsConstructor
+class SkewedElementSampler {
+
+    private final PolicyUtil policyUtil;
+    private final AccessDistribution distribution;
+    private final double zipfExponent;
+    private final double hotSetFraction;
+    private final double hotSetProbability;
+
+    /**
+     * Cumulative Zipf weights by number of elements, the lists of the domain differ in size.
+     */
+    private final Map<Integer, double[]> zipfDistributions = new HashMap<>();
+
+    <T> T sample(List<T> elements) {
+        return elements.get(sampleIndex(elements.size()));
+    }
+
+    private int sampleIndex(int size) {
+        switch (distribution) {
+            case ZIPF:
+                return sampleZipf(size);
+            case HOT_SET:
+                return sampleHotSet(size);
+            case UNIFORM:
+                //fall through
+            default:
+                return policyUtil.roll(size);
+        }
+    }
+
+    private int sampleZipf(int size) {
+        double[] cumulativeWeights = zipfDistributions.computeIfAbsent(size, this::cumulativeZipfWeights);
+        double position = policyUtil.roll() * cumulativeWeights[size - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, position);
+        // the insertion point is the first element whose cumulative weight exceeds the position
+        return Math.min(index < 0 ? -index - 1 : index + 1, size - 1);
+    }
+
+    private double[] cumulativeZipfWeights(int size) {
+        double[] cumulativeWeights = new double[size];
+        double sum = 0D;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1D / Math.pow(rank, zipfExponent);
+            cumulativeWeights[rank - 1] = sum;
+        }
+        return cumulativeWeights;
+    }
+
+    private int sampleHotSet(int size) {
+        int hotSetSize = Math.max(1, (int) Math.round(size * hotSetFraction));
+        if (hotSetSize >= size || policyUtil.rollIsLowerThanProbability(hotSetProbability))
+            return policyUtil.roll(Math.min(hotSetSize, size));
+        return hotSetSize + policyUtil.roll(size - hotSetSize);
+    }
+
+}
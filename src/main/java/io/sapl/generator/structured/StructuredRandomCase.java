@@ -51,4 +51,14 @@ public class StructuredRandomCase extends BenchmarkCase {
     double probabilityEmptySubscription = 0.95D;
     double probabilityEmptySubscriptionNode = 0.8D;
 
+    // skew of the subscriptions, see AccessDistribution
+    AccessDistribution accessDistribution = AccessDistribution.UNIFORM;
+    double zipfExponent = 1.0D;
+    double hotSetFraction = 0.2D;
+    double hotSetProbability = 0.8D;
+
+    // probability of repeating one of the last temporalLocalityWindow subscriptions instead of drawing a new one
+    double temporalLocality = 0.0D;
+    int temporalLocalityWindow = 16;
+
 }
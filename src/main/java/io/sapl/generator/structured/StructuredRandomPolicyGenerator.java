@@ -154,6 +154,7 @@ public class StructuredRandomPolicyGenerator implements PolicyGenerator {
                 .append(TAB_STRING).append(obligation.getObligation());
     }
 
+    @Override
     public List<DomainPolicy> generatePolicies() {
 
         List<DomainRole> allRoles = List.copyOf(domainDataContainer.getDomainRoles());
@@ -8,14 +8,19 @@ import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.domain.model.DomainDataContainer;
 import io.sapl.generator.SubscriptionGenerator;
 import io.sapl.domain.model.DomainSubject;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
+/**
+ * Generates subscriptions for subjects, actions and resources of the domain. The elements are drawn according to the
+ * {@link AccessDistribution} of the case. With temporal locality, a subscription repeats one of the most recent ones
+ * with the configured probability, the generated subscriptions then have to be retrieved in order.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class StructuredRandomSubscriptionGenerator implements SubscriptionGenerator {
 
     private static final JsonNode EMPTY_NODE = JsonNodeFactory.instance.objectNode();
@@ -23,19 +28,65 @@ public class StructuredRandomSubscriptionGenerator implements SubscriptionGenera
     private final DomainDataContainer domainDataContainer;
     private final double emptySubNodeProbability;
     private final double emptySubProbability;
+    private final SkewedElementSampler sampler;
+    private final double temporalLocality;
+    private final int temporalLocalityWindow;
+
+    public StructuredRandomSubscriptionGenerator(DomainDataContainer domainDataContainer,
+                                                 StructuredRandomCase structuredCase) {
+        this.domainDataContainer = domainDataContainer;
+        this.emptySubNodeProbability = structuredCase.getProbabilityEmptySubscriptionNode();
+        this.emptySubProbability = structuredCase.getProbabilityEmptySubscription();
+        this.sampler = new SkewedElementSampler(domainDataContainer.getPolicyUtil(),
+                structuredCase.getAccessDistribution(), structuredCase.getZipfExponent(),
+                structuredCase.getHotSetFraction(), structuredCase.getHotSetProbability());
+        this.temporalLocality = structuredCase.getTemporalLocality();
+        this.temporalLocalityWindow = Math.max(1, structuredCase.getTemporalLocalityWindow());
+    }
 
     @Override
     public List<AuthorizationSubscription> generateSubscriptions(int numberOfSubscriptions) {
-        List<AuthorizationSubscription> subscriptions = new LinkedList<>();
+        List<AuthorizationSubscription> subscriptions = new ArrayList<>(numberOfSubscriptions);
+        Deque<AuthorizationSubscription> recentSubscriptions = new ArrayDeque<>(temporalLocalityWindow);
+        int repeated = 0;
         for (int i = 0; i < numberOfSubscriptions; i++) {
-            AuthorizationSubscription sub = createStructuredRandomSubscription();
+            AuthorizationSubscription sub;
+            if (temporalLocality > 0D && !recentSubscriptions.isEmpty()
+                    && domainDataContainer.getPolicyUtil().rollIsLowerThanProbability(temporalLocality)) {
+                sub = recentElement(recentSubscriptions);
+                repeated++;
+            } else {
+                sub = createStructuredRandomSubscription();
+            }
+
+            if (temporalLocality > 0D) {
+                if (recentSubscriptions.size() == temporalLocalityWindow)
+                    recentSubscriptions.removeFirst();
+                recentSubscriptions.addLast(sub);
+            }
 
             subscriptions.add(sub);
             log.trace("generated sub: {}", sub);
         }
+        if (temporalLocality > 0D)
+            log.info("{} of {} subscriptions repeat one of the last {}", repeated, numberOfSubscriptions,
+                    temporalLocalityWindow);
         return subscriptions;
     }
 
+    @Override
+    public boolean isOrdered() {
+        return temporalLocality > 0D;
+    }
+
+    private AuthorizationSubscription recentElement(Deque<AuthorizationSubscription> recentSubscriptions) {
+        int index = roll(recentSubscriptions.size());
+        var iterator = recentSubscriptions.descendingIterator();
+        for (int i = 0; i < index; i++)
+            iterator.next();
+        return iterator.next();
+    }
+
     public AuthorizationSubscription createStructuredRandomSubscription() {
         double roll = roll();
         if (roll >= emptySubProbability) {
@@ -56,7 +107,7 @@ public class StructuredRandomSubscriptionGenerator implements SubscriptionGenera
     }
 
     public <T> T getRandomElement(List<T> list) {
-        return list.get(roll(list.size()));
+        return sampler.sample(list);
     }
 
     private JsonNode getRandomResource() {